@@ -0,0 +1,50 @@
+package com.example.agenda.config;
+
+import com.example.agenda.deadline.DeadlineDataSource;
+import com.example.agenda.deadline.DeadlineQueryListener;
+import net.ttddyy.dsproxy.listener.logging.SLF4JLogLevel;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Envolve o DataSource com o datasource-proxy e registra as consultas lentas com os parâmetros.
+ * A contagem de comandos SQL por thread só é ligada pelos testes de orçamento de consultas
+ * ({@code agenda.datasource.count-queries=true}); em produção ninguém lê nem zera esses contadores.
+ * Também aplica o prazo da requisição: recusa conexões com o prazo vencido e limita cada comando
+ * ao tempo que resta.
+ */
+@Configuration
+public class DataSourceProxyConfig {
+
+    // Lidas do Environment: um BeanPostProcessor é criado cedo, antes de existir quem resolva
+    // placeholders de @Value (nos testes de fatia, como @DataJpaTest, pode nem existir)
+    @Bean
+    public static BeanPostProcessor dataSourceProxyPostProcessor(Environment environment) {
+        long slowQueryThresholdMs = environment.getProperty("agenda.datasource.slow-query-threshold-ms", Long.class, 500L);
+        boolean countQueries = environment.getProperty("agenda.datasource.count-queries", Boolean.class, false);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)
+                        && !(bean instanceof DeadlineDataSource)) {
+                    ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .logSlowQueryBySlf4j(slowQueryThresholdMs, TimeUnit.MILLISECONDS, SLF4JLogLevel.WARN)
+                            .listener(new DeadlineQueryListener());
+                    if (countQueries) {
+                        builder.countQuery();
+                    }
+                    return new DeadlineDataSource(builder.build());
+                }
+                return bean;
+            }
+        };
+    }
+}
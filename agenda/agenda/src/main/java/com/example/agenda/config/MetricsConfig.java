@@ -0,0 +1,43 @@
+package com.example.agenda.config;
+
+import com.example.agenda.deadline.DeadlineContext;
+import com.example.agenda.service.ContactService;
+import com.example.agenda.service.SingleFlight;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder contactLookupMetrics(ContactService contactService) {
+        return registry -> {
+            for (SingleFlight<?, ?> flight : contactService.getLookupFlights()) {
+                FunctionCounter.builder("agenda.lookups.coalesced", flight, SingleFlight::getCoalescedCount)
+                        .description("Buscas atendidas por uma consulta idêntica já em andamento")
+                        .tag("lookup", flight.getName())
+                        .register(registry);
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder deadlineMetrics() {
+        return registry -> {
+            FunctionCounter.builder("agenda.deadline.rejected", DeadlineContext.class,
+                            type -> DeadlineContext.getRejectedCount())
+                    .description("Requisições recusadas por prazo vencido antes de pegar conexão")
+                    .register(registry);
+            FunctionCounter.builder("agenda.deadline.timeouts", DeadlineContext.class,
+                            type -> DeadlineContext.getTimedOutCount())
+                    .description("Comandos SQL cancelados pelo banco ao fim do prazo da requisição")
+                    .register(registry);
+            FunctionCounter.builder("agenda.deadline.coalesced-timeouts", DeadlineContext.class,
+                            type -> DeadlineContext.getCoalescedTimeoutCount())
+                    .description("Chamadas que desistiram, no próprio prazo, de esperar uma consulta compartilhada")
+                    .register(registry);
+        };
+    }
+}
@@ -1,14 +1,26 @@
 package com.example.agenda.controller;
 
+import com.example.agenda.deadline.WithDeadline;
+import com.example.agenda.dto.ContactPageResponse;
 import com.example.agenda.dto.ContactRequest;
 import com.example.agenda.dto.ContactResponse;
 import com.example.agenda.service.ContactService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
@@ -16,35 +28,72 @@ import java.util.List;
 @Tag(name = "Contatos", description = "Gerenciamento completo da agenda de contatos")
 public class ContactController {
 
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final ContactService service;
+    private final ObjectWriter lineWriter;
 
-    public ContactController(ContactService contactService) {
+    public ContactController(ContactService contactService, ObjectMapper objectMapper) {
         this.service = contactService;
+        // Cada linha é escrita no mesmo stream: não fechar nem dar flush a cada contato
+        this.lineWriter = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
     }
 
     // CREATE
     @Operation(summary = "Cria um novo contato na agenda")
     @ApiResponse(responseCode = "200", description = "Contato criado com sucesso")
     @PostMapping
+    @WithDeadline("${agenda.deadline.write-ms:5000}")
     public ResponseEntity<ContactResponse> create(@RequestBody ContactRequest request) {
         ContactResponse response = service.create(request);
         return ResponseEntity.ok(response);
     }
 
     // READ ALL
-    @Operation(summary = "Lista todos os contatos existentes")
+    @Operation(summary = "Lista todos os contatos existentes",
+            description = "Sem limite: monta a lista inteira. Para agendas grandes use /contacts/page ou /contacts/stream")
     @ApiResponse(responseCode = "200", description = "Lista de contatos retornada")
     @GetMapping
+    @WithDeadline("${agenda.deadline.list-ms:10000}")
     public ResponseEntity<List<ContactResponse>> findAll() {
         List<ContactResponse> contacts = service.findAll();
         return ResponseEntity.ok(contacts);
     }
 
+    // READ PAGE
+    @Operation(summary = "Lista uma página de contatos em ordem de id")
+    @ApiResponse(responseCode = "200", description = "Página retornada")
+    @ApiResponse(responseCode = "400", description = "Paginação inválida")
+    @GetMapping("/page")
+    @WithDeadline("${agenda.deadline.list-ms:10000}")
+    public ResponseEntity<ContactPageResponse> findPage(@RequestParam(defaultValue = "0") int page,
+                                                        @RequestParam(defaultValue = "50") int size) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Use page >= 0 e size entre 1 e " + MAX_PAGE_SIZE);
+        }
+        return ResponseEntity.ok(service.findPage(page, size));
+    }
+
+    // READ ALL (STREAMING)
+    @Operation(summary = "Transmite todos os contatos em NDJSON, um por linha, sem montar a lista em memória")
+    @ApiResponse(responseCode = "200", description = "Contatos transmitidos")
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> stream() {
+        StreamingResponseBody body = out -> service.streamAll(contact -> writeLine(out, contact));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     // READ BY ID
     @Operation(summary = "Busca um contato pelo seu ID")
     @ApiResponse(responseCode = "200", description = "Contato encontrado com sucesso")
     @ApiResponse(responseCode = "404", description = "Contato não encontrado")
     @GetMapping("/{id}")
+    @WithDeadline("${agenda.deadline.lookup-ms:2000}")
     public ResponseEntity<ContactResponse> findById(@PathVariable Long id) {
         ContactResponse contact = service.findById(id);
         return ResponseEntity.ok(contact);
@@ -55,6 +104,7 @@ public class ContactController {
     @ApiResponse(responseCode = "200", description = "Lista de contatos ou lista vazia")
     @ApiResponse(responseCode = "404", description = "Nenhum contato encontrado com o nome fornecido")
     @GetMapping("/search/name/{name}")
+    @WithDeadline("${agenda.deadline.lookup-ms:2000}")
     public ResponseEntity<List<ContactResponse>> findByName(@PathVariable String name) {
         List<ContactResponse> contacts = service.findByName(name);
         return ResponseEntity.ok(contacts);
@@ -65,6 +115,7 @@ public class ContactController {
     @ApiResponse(responseCode = "200", description = "Contato encontrado com sucesso")
     @ApiResponse(responseCode = "404", description = "Nenhum contato encontrado com este telefone")
     @GetMapping("/search/phone/{phone}")
+    @WithDeadline("${agenda.deadline.lookup-ms:2000}")
     public ResponseEntity<ContactResponse> findByPhone(@PathVariable String phone) {
         ContactResponse contact = service.findByPhone(phone);
         return ResponseEntity.ok(contact);
@@ -75,6 +126,7 @@ public class ContactController {
     @ApiResponse(responseCode = "200", description = "Contato atualizado com sucesso")
     @ApiResponse(responseCode = "404", description = "ID de contato não encontrado")
     @PutMapping("/{id}")
+    @WithDeadline("${agenda.deadline.write-ms:5000}")
     public ResponseEntity<ContactResponse> update(@PathVariable Long id, @RequestBody ContactRequest request) {
         ContactResponse response = service.update(id, request);
         return ResponseEntity.ok(response);
@@ -85,8 +137,19 @@ public class ContactController {
     @ApiResponse(responseCode = "200", description = "Contato excluído com sucesso")
     @ApiResponse(responseCode = "404", description = "ID de contato não encontrado")
     @DeleteMapping("/{id}")
+    @WithDeadline("${agenda.deadline.write-ms:5000}")
     public ResponseEntity<Void> delete(@PathVariable Long id) {
         service.delete(id);
         return ResponseEntity.ok().build();
     }
+
+    private void writeLine(OutputStream out, ContactResponse contact) {
+        try {
+            lineWriter.writeValue(out, contact);
+            out.write('\n');
+        } catch (IOException e) {
+            // Cliente desconectou: interrompe a leitura e libera o cursor
+            throw new UncheckedIOException(e);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,124 @@
+package com.example.agenda.controller;
+
+import com.example.agenda.dto.ContactGroupRequest;
+import com.example.agenda.dto.ContactGroupResponse;
+import com.example.agenda.dto.ContactPageResponse;
+import com.example.agenda.service.ContactGroupIndex;
+import com.example.agenda.service.ContactGroupService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/groups")
+@Tag(name = "Grupos", description = "Organização dos contatos em grupos e filtros por combinação de grupos")
+public class ContactGroupController {
+
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private final ContactGroupService service;
+
+    public ContactGroupController(ContactGroupService service) {
+        this.service = service;
+    }
+
+    // CREATE
+    @Operation(summary = "Cria um grupo (ou devolve o existente com o mesmo nome)")
+    @ApiResponse(responseCode = "200", description = "Grupo criado com sucesso")
+    @PostMapping
+    public ResponseEntity<ContactGroupResponse> create(@RequestBody ContactGroupRequest request) {
+        if (request.getName() == null || request.getName().isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "O nome do grupo não pode estar em branco");
+        }
+        return ResponseEntity.ok(service.create(request));
+    }
+
+    // READ ALL
+    @Operation(summary = "Lista os grupos com a quantidade de contatos de cada um")
+    @ApiResponse(responseCode = "200", description = "Lista de grupos retornada")
+    @GetMapping
+    public ResponseEntity<List<ContactGroupResponse>> findAll() {
+        return ResponseEntity.ok(service.findAll());
+    }
+
+    // DELETE
+    @Operation(summary = "Exclui um grupo (os contatos não são excluídos)")
+    @ApiResponse(responseCode = "200", description = "Grupo excluído com sucesso")
+    @ApiResponse(responseCode = "404", description = "Grupo não encontrado")
+    @DeleteMapping("/{name}")
+    public ResponseEntity<Void> delete(@PathVariable String name) {
+        service.delete(name);
+        return ResponseEntity.ok().build();
+    }
+
+    // ADD MEMBER
+    @Operation(summary = "Coloca um contato no grupo")
+    @ApiResponse(responseCode = "200", description = "Contato incluído no grupo")
+    @ApiResponse(responseCode = "400", description = "Id de contato fora da faixa suportada pelos grupos")
+    @ApiResponse(responseCode = "404", description = "Grupo ou contato não encontrado")
+    @PutMapping("/{name}/contacts/{contactId}")
+    public ResponseEntity<ContactGroupResponse> addContact(@PathVariable String name, @PathVariable Long contactId) {
+        requireIndexable(contactId);
+        return ResponseEntity.ok(service.addContact(name, contactId));
+    }
+
+    // REMOVE MEMBER
+    @Operation(summary = "Tira um contato do grupo")
+    @ApiResponse(responseCode = "200", description = "Contato retirado do grupo")
+    @ApiResponse(responseCode = "400", description = "Id de contato fora da faixa suportada pelos grupos")
+    @ApiResponse(responseCode = "404", description = "Grupo não encontrado")
+    @DeleteMapping("/{name}/contacts/{contactId}")
+    public ResponseEntity<ContactGroupResponse> removeContact(@PathVariable String name, @PathVariable Long contactId) {
+        requireIndexable(contactId);
+        return ResponseEntity.ok(service.removeContact(name, contactId));
+    }
+
+    // FILTER
+    @Operation(summary = "Lista, paginados, os contatos em todos os grupos de 'all', em algum de 'any' e em nenhum de 'none'")
+    @ApiResponse(responseCode = "200", description = "Página de contatos retornada")
+    @ApiResponse(responseCode = "400", description = "Filtro sem 'all' nem 'any', ou paginação inválida")
+    @GetMapping("/contacts")
+    public ResponseEntity<ContactPageResponse> filter(@RequestParam(defaultValue = "") List<String> all,
+                                                      @RequestParam(defaultValue = "") List<String> any,
+                                                      @RequestParam(defaultValue = "") List<String> none,
+                                                      @RequestParam(defaultValue = "0") int page,
+                                                      @RequestParam(defaultValue = "20") int size) {
+        requireIncludeFilter(all, any);
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Use page >= 0 e size entre 1 e " + MAX_PAGE_SIZE);
+        }
+        return ResponseEntity.ok(service.filter(all, any, none, page, size));
+    }
+
+    // COUNT
+    @Operation(summary = "Conta os contatos que atendem ao filtro de grupos")
+    @ApiResponse(responseCode = "200", description = "Quantidade retornada")
+    @ApiResponse(responseCode = "400", description = "Filtro sem 'all' nem 'any'")
+    @GetMapping("/contacts/count")
+    public ResponseEntity<Long> count(@RequestParam(defaultValue = "") List<String> all,
+                                      @RequestParam(defaultValue = "") List<String> any,
+                                      @RequestParam(defaultValue = "") List<String> none) {
+        requireIncludeFilter(all, any);
+        return ResponseEntity.ok(service.count(all, any, none));
+    }
+
+    private void requireIncludeFilter(List<String> all, List<String> any) {
+        if (all.isEmpty() && any.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Informe ao menos um grupo em 'all' ou 'any'");
+        }
+    }
+
+    private void requireIndexable(long contactId) {
+        if (!ContactGroupIndex.isIndexable(contactId)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Id de contato fora da faixa suportada pelos grupos (0 a " + Integer.MAX_VALUE + ")");
+        }
+    }
+}
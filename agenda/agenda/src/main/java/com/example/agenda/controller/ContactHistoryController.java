@@ -0,0 +1,42 @@
+package com.example.agenda.controller;
+
+import com.example.agenda.journal.ContactChange;
+import com.example.agenda.journal.ContactJournal;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/contacts")
+@Tag(name = "Histórico", description = "Auditoria das alterações feitas nos contatos")
+public class ContactHistoryController {
+
+    private static final int MAX_LIMIT = 10_000;
+
+    private final ContactJournal journal;
+
+    public ContactHistoryController(ContactJournal journal) {
+        this.journal = journal;
+    }
+
+    // HISTORY BY CONTACT
+    @Operation(summary = "Lista todas as alterações de um contato, da mais antiga para a mais recente")
+    @ApiResponse(responseCode = "200", description = "Histórico retornado (vazio se não houver alterações)")
+    @GetMapping("/{id}/history")
+    public ResponseEntity<List<ContactChange>> history(@PathVariable Long id) {
+        return ResponseEntity.ok(journal.history(id));
+    }
+
+    // REPLAY
+    @Operation(summary = "Lê o diário de alterações a partir de uma sequência (inclusive)")
+    @ApiResponse(responseCode = "200", description = "Alterações retornadas em ordem de sequência")
+    @GetMapping("/journal")
+    public ResponseEntity<List<ContactChange>> journal(@RequestParam(defaultValue = "1") long from,
+                                                       @RequestParam(defaultValue = "1000") int limit) {
+        return ResponseEntity.ok(journal.read(from, Math.min(Math.max(limit, 0), MAX_LIMIT)));
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.agenda.controller;
+
+import com.example.agenda.snapshot.ContactSnapshot;
+import com.example.agenda.snapshot.ContactSnapshotService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+
+@RestController
+@RequestMapping("/contacts")
+@Tag(name = "Snapshot", description = "Download da agenda inteira, pré-comprimido")
+public class ContactSnapshotController {
+
+    // Atributos de request do Tomcat para envio por sendfile (sem passar pelo heap)
+    static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    static final String VERSION_HEADER = "X-Snapshot-Version";
+
+    private final ContactSnapshotService snapshotService;
+
+    public ContactSnapshotController(ContactSnapshotService snapshotService) {
+        this.snapshotService = snapshotService;
+    }
+
+    // SNAPSHOT
+    @Operation(summary = "Baixa todos os contatos em JSON (gzip se o cliente aceitar); continue por /contacts/journal?from=versão+1")
+    @ApiResponse(responseCode = "200", description = "Snapshot enviado")
+    @ApiResponse(responseCode = "304", description = "O cliente já tem esta versão (If-None-Match)")
+    @ApiResponse(responseCode = "503", description = "Snapshot ainda não gerado")
+    @GetMapping("/snapshot")
+    public void snapshot(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ContactSnapshot snapshot = snapshotService.current().orElse(null);
+        if (snapshot == null) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "5");
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            return;
+        }
+
+        // O corpo muda com o Accept-Encoding: caches intermediários precisam separar as duas formas
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        boolean gzip = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        String etag = snapshot.etag(gzip);
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(VERSION_HEADER, String.valueOf(snapshot.version()));
+        // "*" casa com qualquer versão existente; lista de ETags e comparação fraca ficam por conta do Spring
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && ifNoneMatch.trim().equals("*")) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+        if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+            return;
+        }
+
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        if (!gzip) {
+            // Cliente sem gzip: descomprime no caminho, sem Content-Length
+            try (InputStream in = new GZIPInputStream(Files.newInputStream(snapshot.file()), 64 * 1024)) {
+                in.transferTo(response.getOutputStream());
+            }
+            return;
+        }
+
+        response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        response.setContentLengthLong(snapshot.size());
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // O conector envia o arquivo depois que o método retorna
+            request.setAttribute(SENDFILE_FILENAME, snapshot.file().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, snapshot.size());
+            return;
+        }
+
+        // Sem sendfile: cópia comum, passando pelo buffer do stream de saída do servlet
+        Files.copy(snapshot.file(), response.getOutputStream());
+    }
+
+    /**
+     * Se o Accept-Encoding aceita gzip: pela entrada gzip (ou x-gzip), senão pela "*";
+     * q=0 recusa. Sem o cabeçalho, o arquivo é enviado descomprimido.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean wildcard = null;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            boolean accepted = quality(parts) > 0;
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                return accepted;
+            }
+            if (coding.equals("*")) {
+                wildcard = accepted;
+            }
+        }
+        return Boolean.TRUE.equals(wildcard);
+    }
+
+    private static double quality(String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            String parameter = parameters[i].trim();
+            if (parameter.startsWith("q=") || parameter.startsWith("Q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
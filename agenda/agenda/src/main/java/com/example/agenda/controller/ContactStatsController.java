@@ -0,0 +1,31 @@
+package com.example.agenda.controller;
+
+import com.example.agenda.dto.ContactStatsResponse;
+import com.example.agenda.service.ContactStatsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/contacts")
+@Tag(name = "Estatísticas", description = "Números gerais da agenda")
+public class ContactStatsController {
+
+    private final ContactStatsService statsService;
+
+    public ContactStatsController(ContactStatsService statsService) {
+        this.statsService = statsService;
+    }
+
+    // STATS
+    @Operation(summary = "Retorna totais, cadastros por dia, domínios de e-mail mais usados e contatos incompletos")
+    @ApiResponse(responseCode = "200", description = "Estatísticas retornadas")
+    @GetMapping("/stats")
+    public ResponseEntity<ContactStatsResponse> stats() {
+        return ResponseEntity.ok(statsService.getStats());
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.agenda.controller;
+
+import com.example.agenda.dto.ContactImportResult;
+import com.example.agenda.format.ContactFormat;
+import com.example.agenda.service.ContactTransferService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/contacts")
+@Tag(name = "Importação e Exportação", description = "Transferência da agenda em arquivos CSV e vCard")
+public class ContactTransferController {
+
+    private final ContactTransferService service;
+
+    public ContactTransferController(ContactTransferService service) {
+        this.service = service;
+    }
+
+    // EXPORT
+    @Operation(summary = "Exporta todos os contatos em CSV ou vCard, transmitidos sem carregar a agenda em memória")
+    @ApiResponse(responseCode = "200", description = "Arquivo transmitido")
+    @ApiResponse(responseCode = "400", description = "Formato não suportado")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "csv") String format) {
+        ContactFormat contactFormat = resolve(format);
+        StreamingResponseBody body = out -> service.export(contactFormat, out);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(contactFormat.getMediaType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(contactFormat.getFileName()).build().toString())
+                .body(body);
+    }
+
+    // IMPORT
+    @Operation(summary = "Importa contatos de um arquivo CSV ou vCard, gravando em lotes")
+    @ApiResponse(responseCode = "200", description = "Resumo da importação, com os erros por linha")
+    @ApiResponse(responseCode = "400", description = "Formato não suportado")
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ContactImportResult> importContacts(@RequestParam(defaultValue = "csv") String format,
+                                                              @RequestParam("file") MultipartFile file) throws IOException {
+        ContactFormat contactFormat = resolve(format);
+
+        try (InputStream in = file.getInputStream()) {
+            return ResponseEntity.ok(service.importContacts(contactFormat, in));
+        }
+    }
+
+    private ContactFormat resolve(String format) {
+        return ContactFormat.fromParam(format)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Formato não suportado: " + format));
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.agenda.deadline;
+
+import com.example.agenda.exception.DeadlineExceededException;
+
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Prazo da requisição atual, guardado na thread que a atende. Definido pelo
+ * {@link DeadlineInterceptor} e consultado ao pegar conexões e executar comandos SQL.
+ */
+public final class DeadlineContext {
+
+    private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+
+    // Trabalho poupado: requisições recusadas antes de pegar conexão e comandos cancelados pelo banco
+    private static final LongAdder REJECTED = new LongAdder();
+    private static final LongAdder TIMED_OUT = new LongAdder();
+    // Chamadas que desistiram de esperar uma consulta compartilhada (não chegaram a pedir conexão)
+    private static final LongAdder COALESCED_TIMEOUTS = new LongAdder();
+
+    private DeadlineContext() {
+    }
+
+    public static void start(long timeoutMillis) {
+        DEADLINE.set(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis));
+    }
+
+    public static void clear() {
+        DEADLINE.remove();
+    }
+
+    /**
+     * Milissegundos que restam, ou vazio se a requisição não tem prazo.
+     */
+    public static OptionalLong remainingMillis() {
+        Long deadline = DEADLINE.get();
+        if (deadline == null) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+    }
+
+    /**
+     * Lança {@link DeadlineExceededException} se o prazo já passou.
+     */
+    public static void check() {
+        OptionalLong remaining = remainingMillis();
+        if (remaining.isPresent() && remaining.getAsLong() <= 0) {
+            throw exceeded();
+        }
+    }
+
+    /**
+     * Conta a requisição como recusada por prazo e devolve a exceção a lançar.
+     */
+    public static DeadlineExceededException exceeded() {
+        REJECTED.increment();
+        return DeadlineExceededException.INSTANCE;
+    }
+
+    /**
+     * Conta a chamada que desistiu de esperar a consulta de outra e devolve a exceção a lançar.
+     */
+    public static DeadlineExceededException coalescedWaitExpired() {
+        COALESCED_TIMEOUTS.increment();
+        return DeadlineExceededException.INSTANCE;
+    }
+
+    static void recordTimeout() {
+        TIMED_OUT.increment();
+    }
+
+    public static long getRejectedCount() {
+        return REJECTED.sum();
+    }
+
+    public static long getTimedOutCount() {
+        return TIMED_OUT.sum();
+    }
+
+    public static long getCoalescedTimeoutCount() {
+        return COALESCED_TIMEOUTS.sum();
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.agenda.deadline;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Inicia o prazo dos endpoints anotados com {@link WithDeadline} e o limpa ao fim da requisição.
+ */
+@Component
+public class DeadlineInterceptor implements AsyncHandlerInterceptor, WebMvcConfigurer {
+
+    private final Environment environment;
+    // Prazo resolvido por método (0 = sem prazo)
+    private final Map<HandlerMethod, Long> timeouts = new ConcurrentHashMap<>();
+
+    public DeadlineInterceptor(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(this);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod method) {
+            long timeout = timeouts.computeIfAbsent(method, this::resolveTimeout);
+            if (timeout > 0) {
+                DeadlineContext.start(timeout);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        DeadlineContext.clear();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        DeadlineContext.clear();
+    }
+
+    private long resolveTimeout(HandlerMethod method) {
+        WithDeadline annotation = method.getMethodAnnotation(WithDeadline.class);
+        if (annotation == null) {
+            return 0;
+        }
+        return Long.parseLong(environment.resolveRequiredPlaceholders(annotation.value()).trim());
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.agenda.deadline;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Converte o tempo que resta da requisição em {@link Statement#setQueryTimeout(int)}, para que o
+ * banco cancele a consulta quando o cliente já desistiu. O JDBC só aceita segundos inteiros:
+ * o tempo é arredondado para cima, com no mínimo 1 segundo.
+ */
+public class DeadlineQueryListener implements QueryExecutionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(DeadlineQueryListener.class);
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        OptionalLong remaining = DeadlineContext.remainingMillis();
+        if (remaining.isEmpty()) {
+            return;
+        }
+        int seconds = (int) Math.max(1, (remaining.getAsLong() + 999) / 1000);
+        Statement statement = execInfo.getStatement();
+        try {
+            int current = statement.getQueryTimeout();
+            if (current == 0 || seconds < current) {
+                statement.setQueryTimeout(seconds);
+            }
+        } catch (SQLException e) {
+            log.debug("Não foi possível definir o timeout do comando", e);
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (execInfo.getThrowable() instanceof SQLTimeoutException) {
+            DeadlineContext.recordTimeout();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.agenda.deadline;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Prazo de um endpoint, em milissegundos. Aceita placeholders, por exemplo
+ * {@code @WithDeadline("${agenda.deadline.search-ms:2000}")}. Endpoints sem a anotação não têm prazo.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface WithDeadline {
+
+    String value();
+}
@@ -0,0 +1,14 @@
+package com.example.agenda.dto;
+
+public class ContactGroupRequest {
+
+    private String name;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.agenda.dto;
+
+public class ContactGroupResponse {
+
+    private Long id;
+    private String name;
+    private long size;
+
+    public ContactGroupResponse() {
+    }
+
+    public ContactGroupResponse(Long id, String name, long size) {
+        this.id = id;
+        this.name = name;
+        this.size = size;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+}
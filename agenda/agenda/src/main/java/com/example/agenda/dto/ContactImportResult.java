@@ -0,0 +1,56 @@
+package com.example.agenda.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ContactImportResult {
+
+    // Limita o relatório para o heap não crescer com arquivos muito ruins
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    private long imported;
+    private long failed;
+    private final List<LineError> errors = new ArrayList<>();
+
+    public void addImported(long count) {
+        this.imported += count;
+    }
+
+    public void addError(long line, String message) {
+        this.failed++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new LineError(line, message));
+        }
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public List<LineError> getErrors() {
+        return errors;
+    }
+
+    public static class LineError {
+
+        private final long line;
+        private final String message;
+
+        public LineError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.agenda.dto;
+
+import java.util.List;
+
+public class ContactPageResponse {
+
+    private List<ContactResponse> content;
+    private int page;
+    private int size;
+    private long totalElements;
+    private int totalPages;
+
+    public ContactPageResponse() {
+    }
+
+    public ContactPageResponse(List<ContactResponse> content, int page, int size, long totalElements) {
+        this.content = content;
+        this.page = page;
+        this.size = size;
+        this.totalElements = totalElements;
+        this.totalPages = size == 0 ? 0 : (int) ((totalElements + size - 1) / size);
+    }
+
+    public List<ContactResponse> getContent() {
+        return content;
+    }
+
+    public void setContent(List<ContactResponse> content) {
+        this.content = content;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public long getTotalElements() {
+        return totalElements;
+    }
+
+    public void setTotalElements(long totalElements) {
+        this.totalElements = totalElements;
+    }
+
+    public int getTotalPages() {
+        return totalPages;
+    }
+
+    public void setTotalPages(int totalPages) {
+        this.totalPages = totalPages;
+    }
+}
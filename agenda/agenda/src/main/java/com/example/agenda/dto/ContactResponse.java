@@ -12,6 +12,19 @@ public class ContactResponse {
     private String notes;
     private LocalDateTime createdAt;
 
+    public ContactResponse() {
+    }
+
+    // Usado pela projeção JPQL de ContactRepository.streamAll()
+    public ContactResponse(Long id, String name, String email, String phone, String notes, LocalDateTime createdAt) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+        this.phone = phone;
+        this.notes = notes;
+        this.createdAt = createdAt;
+    }
+
     public static ContactResponse fromEntity(Contact c) {
         ContactResponse res = new ContactResponse();
         res.setId(c.getId());
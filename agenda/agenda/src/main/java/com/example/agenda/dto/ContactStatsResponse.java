@@ -0,0 +1,101 @@
+package com.example.agenda.dto;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+public class ContactStatsResponse {
+
+    private long totalContacts;
+    private long missingEmail;
+    private long missingPhone;
+    private List<DailyCount> createdPerDay;
+    private List<DomainCount> topEmailDomains;
+    private Instant lastReconciledAt;
+
+    public long getTotalContacts() {
+        return totalContacts;
+    }
+
+    public void setTotalContacts(long totalContacts) {
+        this.totalContacts = totalContacts;
+    }
+
+    public long getMissingEmail() {
+        return missingEmail;
+    }
+
+    public void setMissingEmail(long missingEmail) {
+        this.missingEmail = missingEmail;
+    }
+
+    public long getMissingPhone() {
+        return missingPhone;
+    }
+
+    public void setMissingPhone(long missingPhone) {
+        this.missingPhone = missingPhone;
+    }
+
+    public List<DailyCount> getCreatedPerDay() {
+        return createdPerDay;
+    }
+
+    public void setCreatedPerDay(List<DailyCount> createdPerDay) {
+        this.createdPerDay = createdPerDay;
+    }
+
+    public List<DomainCount> getTopEmailDomains() {
+        return topEmailDomains;
+    }
+
+    public void setTopEmailDomains(List<DomainCount> topEmailDomains) {
+        this.topEmailDomains = topEmailDomains;
+    }
+
+    public Instant getLastReconciledAt() {
+        return lastReconciledAt;
+    }
+
+    public void setLastReconciledAt(Instant lastReconciledAt) {
+        this.lastReconciledAt = lastReconciledAt;
+    }
+
+    public static class DailyCount {
+
+        private final LocalDate date;
+        private final long count;
+
+        public DailyCount(LocalDate date, long count) {
+            this.date = date;
+            this.count = count;
+        }
+
+        public LocalDate getDate() {
+            return date;
+        }
+
+        public long getCount() {
+            return count;
+        }
+    }
+
+    public static class DomainCount {
+
+        private final String domain;
+        private final long count;
+
+        public DomainCount(String domain, long count) {
+            this.domain = domain;
+            this.count = count;
+        }
+
+        public String getDomain() {
+            return domain;
+        }
+
+        public long getCount() {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.agenda.event;
+
+import com.example.agenda.dto.ContactResponse;
+
+/**
+ * Publicado pelo ContactService a cada escrita, com os valores antes e depois da alteração
+ * ({@code before} é null na criação e {@code after} é null na exclusão).
+ */
+public record ContactChangedEvent(ChangeType type, Long contactId, ContactResponse before, ContactResponse after) {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
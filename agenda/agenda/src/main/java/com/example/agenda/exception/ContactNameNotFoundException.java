@@ -0,0 +1,19 @@
+package com.example.agenda.exception;
+
+/**
+ * Busca por nome sem resultado. Guarda só o nome pesquisado: a mensagem com o nome
+ * é montada pelo RestExceptionHandler, apenas quando vira resposta.
+ */
+public final class ContactNameNotFoundException extends ResourceNotFoundException {
+
+    private final String name;
+
+    public ContactNameNotFoundException(String name) {
+        super("Nenhum contato encontrado com este nome");
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
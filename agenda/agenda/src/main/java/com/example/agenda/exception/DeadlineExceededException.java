@@ -0,0 +1,14 @@
+package com.example.agenda.exception;
+
+/**
+ * O prazo da requisição acabou antes de o trabalho começar. É uma situação esperada
+ * sob carga, por isso a exceção é única e não guarda stack trace.
+ */
+public class DeadlineExceededException extends RuntimeException {
+
+    public static final DeadlineExceededException INSTANCE = new DeadlineExceededException();
+
+    private DeadlineExceededException() {
+        super("Prazo da requisição esgotado", null, false, false);
+    }
+}
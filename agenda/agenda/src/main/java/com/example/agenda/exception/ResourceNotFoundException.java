@@ -1,7 +1,12 @@
 package com.example.agenda.exception;
 
+/**
+ * Recurso não encontrado (404). Buscas sem resultado são comuns, então a exceção não
+ * guarda stack trace nem aceita exceções suprimidas: mensagens fixas podem ser pré-alocadas
+ * e lançadas várias vezes, inclusive por threads diferentes.
+ */
 public class ResourceNotFoundException extends RuntimeException {
     public ResourceNotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
\ No newline at end of file
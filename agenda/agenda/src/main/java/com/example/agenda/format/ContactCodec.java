@@ -0,0 +1,19 @@
+package com.example.agenda.format;
+
+import com.example.agenda.dto.ContactResponse;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+
+/**
+ * Escreve e lê contatos em um formato de arquivo, sempre um registro por vez.
+ */
+public interface ContactCodec {
+
+    void writeHeader(Writer out) throws IOException;
+
+    void write(Writer out, ContactResponse contact) throws IOException;
+
+    ContactRecordReader reader(Reader in);
+}
@@ -0,0 +1,44 @@
+package com.example.agenda.format;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Formatos de arquivo aceitos na importação e exportação da agenda.
+ */
+public enum ContactFormat {
+
+    CSV("text/csv", "contatos.csv", new CsvContactCodec()),
+    VCARD("text/vcard", "contatos.vcf", new VCardContactCodec());
+
+    private final String mediaType;
+    private final String fileName;
+    private final ContactCodec codec;
+
+    ContactFormat(String mediaType, String fileName, ContactCodec codec) {
+        this.mediaType = mediaType;
+        this.fileName = fileName;
+        this.codec = codec;
+    }
+
+    /**
+     * Resolve o formato a partir do parâmetro da requisição ("csv", "vcard"), sem diferenciar maiúsculas.
+     */
+    public static Optional<ContactFormat> fromParam(String param) {
+        return Arrays.stream(values())
+                .filter(format -> format.name().equalsIgnoreCase(param))
+                .findFirst();
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public ContactCodec getCodec() {
+        return codec;
+    }
+}
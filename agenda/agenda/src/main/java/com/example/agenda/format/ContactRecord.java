@@ -0,0 +1,21 @@
+package com.example.agenda.format;
+
+import com.example.agenda.dto.ContactRequest;
+
+/**
+ * Um registro lido do arquivo: o contato interpretado ou o erro encontrado na linha.
+ */
+public record ContactRecord(long line, ContactRequest contact, String error) {
+
+    public static ContactRecord of(long line, ContactRequest contact) {
+        return new ContactRecord(line, contact, null);
+    }
+
+    public static ContactRecord error(long line, String error) {
+        return new ContactRecord(line, null, error);
+    }
+
+    public boolean hasError() {
+        return error != null;
+    }
+}
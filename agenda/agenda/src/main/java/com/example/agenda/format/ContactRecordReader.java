@@ -0,0 +1,14 @@
+package com.example.agenda.format;
+
+import java.io.IOException;
+
+/**
+ * Lê os registros de um arquivo importado sob demanda.
+ */
+public interface ContactRecordReader {
+
+    /**
+     * Retorna o próximo registro, ou null no fim do arquivo.
+     */
+    ContactRecord next() throws IOException;
+}
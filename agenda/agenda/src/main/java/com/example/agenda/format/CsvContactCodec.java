@@ -0,0 +1,222 @@
+package com.example.agenda.format;
+
+import com.example.agenda.dto.ContactRequest;
+import com.example.agenda.dto.ContactResponse;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * CSV (RFC 4180) com cabeçalho. Na importação as colunas são localizadas pelo cabeçalho,
+ * então o arquivo exportado pode ser reimportado diretamente.
+ */
+public class CsvContactCodec implements ContactCodec {
+
+    private static final String HEADER = "id,name,email,phone,notes,createdAt";
+
+    // Limites da importação: aspas não fechadas não podem levar o resto do arquivo para a memória
+    static final int MAX_FIELD_CHARS = 4 * 1024;
+    static final int MAX_RECORD_CHARS = 16 * 1024;
+    private static final String TOO_LONG = "Registro grande demais: até " + MAX_FIELD_CHARS
+            + " caracteres por campo e " + MAX_RECORD_CHARS + " por registro";
+
+    @Override
+    public void writeHeader(Writer out) throws IOException {
+        out.write(HEADER);
+        out.write("\r\n");
+    }
+
+    @Override
+    public void write(Writer out, ContactResponse contact) throws IOException {
+        writeField(out, contact.getId() == null ? null : contact.getId().toString());
+        out.write(',');
+        writeField(out, contact.getName());
+        out.write(',');
+        writeField(out, contact.getEmail());
+        out.write(',');
+        writeField(out, contact.getPhone());
+        out.write(',');
+        writeField(out, contact.getNotes());
+        out.write(',');
+        writeField(out, contact.getCreatedAt() == null ? null : contact.getCreatedAt().toString());
+        out.write("\r\n");
+    }
+
+    private void writeField(Writer out, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    @Override
+    public ContactRecordReader reader(Reader in) {
+        return new CsvRecordReader(in);
+    }
+
+    private static final class CsvRecordReader implements ContactRecordReader {
+
+        private final Reader in;
+        private long line = 1;
+        private long recordLine;
+        private Map<String, Integer> columns;
+
+        CsvRecordReader(Reader in) {
+            this.in = in;
+        }
+
+        @Override
+        public ContactRecord next() throws IOException {
+            try {
+                return readRecord();
+            } catch (UnterminatedQuoteException e) {
+                return ContactRecord.error(recordLine, "Aspas não fechadas");
+            } catch (RecordTooLongException e) {
+                return ContactRecord.error(recordLine, TOO_LONG);
+            }
+        }
+
+        private ContactRecord readRecord() throws IOException {
+            if (columns == null) {
+                List<String> header = readFields();
+                if (header == null) {
+                    return null;
+                }
+                columns = new HashMap<>();
+                for (int i = 0; i < header.size(); i++) {
+                    columns.put(header.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT), i);
+                }
+                if (!columns.containsKey("name") || !columns.containsKey("phone")) {
+                    // Sem as colunas obrigatórias nenhum registro pode ser lido
+                    skipRemaining();
+                    return ContactRecord.error(recordLine, "Cabeçalho deve conter as colunas name e phone");
+                }
+            }
+
+            List<String> fields;
+            do {
+                fields = readFields();
+                if (fields == null) {
+                    return null;
+                }
+            } while (fields.size() == 1 && fields.get(0).isBlank());
+
+            ContactRequest contact = new ContactRequest();
+            contact.setName(column(fields, "name"));
+            contact.setEmail(column(fields, "email"));
+            contact.setPhone(column(fields, "phone"));
+            contact.setNotes(column(fields, "notes"));
+            return ContactRecord.of(recordLine, contact);
+        }
+
+        private String column(List<String> fields, String name) {
+            Integer index = columns.get(name);
+            if (index == null || index >= fields.size()) {
+                return null;
+            }
+            String value = fields.get(index);
+            return value.isEmpty() ? null : value;
+        }
+
+        /**
+         * Lê um registro completo; campos entre aspas podem conter vírgulas e quebras de linha.
+         * Lança {@link RecordTooLongException} ao passar de {@link #MAX_FIELD_CHARS} em um campo
+         * ou de {@link #MAX_RECORD_CHARS} no registro.
+         */
+        private List<String> readFields() throws IOException {
+            recordLine = line;
+            int c = read();
+            if (c == -1) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            int recordChars = 0;
+            while (true) {
+                if (++recordChars > MAX_RECORD_CHARS || field.length() > MAX_FIELD_CHARS) {
+                    // Recomeça na próxima linha física; o que foi lido do registro é descartado
+                    if (c != '\n') {
+                        skipLine();
+                    }
+                    throw RecordTooLongException.INSTANCE;
+                }
+                if (quoted) {
+                    if (c == -1) {
+                        throw new UnterminatedQuoteException();
+                    }
+                    if (c == '"') {
+                        int next = read();
+                        if (next != '"') {
+                            quoted = false;
+                            c = next;
+                            continue;
+                        }
+                    }
+                    field.append((char) c);
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n' || c == -1) {
+                    fields.add(field.toString());
+                    return fields;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+        }
+
+        private void skipLine() throws IOException {
+            int c;
+            do {
+                c = read();
+            } while (c != '\n' && c != -1);
+        }
+
+        private void skipRemaining() throws IOException {
+            while (read() != -1) {
+                // descarta
+            }
+        }
+
+        private int read() throws IOException {
+            int c = in.read();
+            if (c == '\n') {
+                line++;
+            }
+            return c;
+        }
+    }
+
+    private static final class UnterminatedQuoteException extends RuntimeException {
+        UnterminatedQuoteException() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static final class RecordTooLongException extends RuntimeException {
+
+        static final RecordTooLongException INSTANCE = new RecordTooLongException();
+
+        private RecordTooLongException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.example.agenda.format;
+
+import com.example.agenda.dto.ContactRequest;
+import com.example.agenda.dto.ContactResponse;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Locale;
+
+/**
+ * vCard 3.0 (RFC 2426). Usa FN, EMAIL, TEL e NOTE; demais propriedades são ignoradas na importação.
+ * Linhas longas são dobradas em 75 octetos na exportação.
+ */
+public class VCardContactCodec implements ContactCodec {
+
+    private static final int MAX_LINE_OCTETS = 75;
+
+    // Limite de uma propriedade na importação, já com as continuações juntadas
+    static final int MAX_UNFOLDED_CHARS = 16 * 1024;
+    private static final String TOO_LONG = "Propriedade maior que " + MAX_UNFOLDED_CHARS + " caracteres";
+
+    @Override
+    public void writeHeader(Writer out) {
+        // vCard não tem cabeçalho de arquivo
+    }
+
+    @Override
+    public void write(Writer out, ContactResponse contact) throws IOException {
+        out.write("BEGIN:VCARD\r\nVERSION:3.0\r\n");
+        writeProperty(out, "FN", contact.getName());
+        writeProperty(out, "EMAIL", contact.getEmail());
+        writeProperty(out, "TEL", contact.getPhone());
+        writeProperty(out, "NOTE", contact.getNotes());
+        out.write("END:VCARD\r\n");
+    }
+
+    private void writeProperty(Writer out, String name, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        writeFolded(out, name + ':' + escape(value));
+    }
+
+    /**
+     * Quebra a linha em no máximo 75 octetos (UTF-8, sem contar o CRLF); cada continuação
+     * começa com um espaço. Nunca divide um caractere multibyte.
+     */
+    static void writeFolded(Writer out, String line) throws IOException {
+        int octets = 0;
+        for (int i = 0; i < line.length(); ) {
+            int codePoint = line.codePointAt(i);
+            int size = utf8Length(codePoint);
+            if (octets + size > MAX_LINE_OCTETS) {
+                out.write("\r\n ");
+                octets = 1;
+            }
+            out.write(Character.toChars(codePoint));
+            octets += size;
+            i += Character.charCount(codePoint);
+        }
+        out.write("\r\n");
+    }
+
+    private static int utf8Length(int codePoint) {
+        if (codePoint < 0x80) {
+            return 1;
+        }
+        if (codePoint < 0x800) {
+            return 2;
+        }
+        return codePoint < 0x10000 ? 3 : 4;
+    }
+
+    static String escape(String value) {
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> sb.append("\\\\");
+                case ',' -> sb.append("\\,");
+                case ';' -> sb.append("\\;");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> { }
+                default -> sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    static String unescape(String value) {
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                sb.append(next == 'n' || next == 'N' ? '\n' : next);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public ContactRecordReader reader(Reader in) {
+        return new VCardRecordReader(in);
+    }
+
+    private static final class VCardRecordReader implements ContactRecordReader {
+
+        private final BufferedReader in;
+        // Reaproveitados entre as linhas: nada de concatenar uma String a cada continuação
+        private final StringBuilder physical = new StringBuilder();
+        private final StringBuilder unfolded = new StringBuilder();
+        private long line;
+        private long physicalLine;
+        private String lookahead;
+        private long lookaheadLine;
+
+        VCardRecordReader(Reader in) {
+            this.in = in instanceof BufferedReader buffered ? buffered : new BufferedReader(in);
+        }
+
+        @Override
+        public ContactRecord next() throws IOException {
+            String current;
+            // Procura o início do próximo cartão (é também onde a leitura recomeça depois de um erro)
+            do {
+                current = readUnfolded();
+                if (current == null) {
+                    return null;
+                }
+            } while (current == TOO_LONG || !current.trim().equalsIgnoreCase("BEGIN:VCARD"));
+
+            long start = line;
+            ContactRequest contact = new ContactRequest();
+            while ((current = readUnfolded()) != null) {
+                if (current == TOO_LONG) {
+                    return ContactRecord.error(line, TOO_LONG);
+                }
+                int colon = current.indexOf(':');
+                if (colon < 0) {
+                    continue;
+                }
+                String name = propertyName(current.substring(0, colon));
+                String value = unescape(current.substring(colon + 1));
+                switch (name) {
+                    case "END" -> {
+                        return ContactRecord.of(start, contact);
+                    }
+                    case "FN" -> contact.setName(value);
+                    case "EMAIL" -> {
+                        if (contact.getEmail() == null) {
+                            contact.setEmail(value);
+                        }
+                    }
+                    case "TEL" -> {
+                        if (contact.getPhone() == null) {
+                            contact.setPhone(value);
+                        }
+                    }
+                    case "NOTE" -> contact.setNotes(value);
+                    default -> { }
+                }
+            }
+            return ContactRecord.error(start, "Cartão sem END:VCARD");
+        }
+
+        // Remove o grupo ("item1.TEL") e os parâmetros ("TEL;TYPE=cell")
+        private String propertyName(String raw) {
+            int semicolon = raw.indexOf(';');
+            String name = semicolon < 0 ? raw : raw.substring(0, semicolon);
+            int dot = name.indexOf('.');
+            return (dot < 0 ? name : name.substring(dot + 1)).trim().toUpperCase(Locale.ROOT);
+        }
+
+        /**
+         * Junta as linhas dobradas (continuações começam com espaço ou tab).
+         * Em {@code line} fica o número da linha onde a propriedade lógica começa.
+         * Uma propriedade maior que {@link #MAX_UNFOLDED_CHARS} é lida até o fim, mas descartada:
+         * devolve {@link #TOO_LONG} (comparado por identidade).
+         */
+        private String readUnfolded() throws IOException {
+            unfolded.setLength(0);
+            if (lookahead != null) {
+                unfolded.append(lookahead);
+                line = lookaheadLine;
+                lookahead = null;
+            } else {
+                if (!readLine()) {
+                    return null;
+                }
+                unfolded.append(physical);
+                line = ++physicalLine;
+            }
+            while (readLine()) {
+                physicalLine++;
+                if (!physical.isEmpty() && (physical.charAt(0) == ' ' || physical.charAt(0) == '\t')) {
+                    if (unfolded.length() <= MAX_UNFOLDED_CHARS) {
+                        unfolded.append(physical, 1, physical.length());
+                    }
+                } else {
+                    lookahead = physical.toString();
+                    lookaheadLine = physicalLine;
+                    break;
+                }
+            }
+            return unfolded.length() > MAX_UNFOLDED_CHARS ? TOO_LONG : unfolded.toString();
+        }
+
+        /**
+         * Lê a próxima linha física para {@code physical}, guardando no máximo
+         * {@link #MAX_UNFOLDED_CHARS} + 1 caracteres (o suficiente para saber que passou do limite).
+         */
+        private boolean readLine() throws IOException {
+            physical.setLength(0);
+            int c = in.read();
+            if (c == -1) {
+                return false;
+            }
+            while (c != -1 && c != '\n') {
+                if (c != '\r' && physical.length() <= MAX_UNFOLDED_CHARS) {
+                    physical.append((char) c);
+                }
+                c = in.read();
+            }
+            return true;
+        }
+    }
+}
@@ -1,17 +1,59 @@
 package com.example.agenda.handler; // Crie um novo pacote
 
+import com.example.agenda.exception.ContactNameNotFoundException;
+import com.example.agenda.exception.DeadlineExceededException;
 import com.example.agenda.exception.ResourceNotFoundException;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+/**
+ * Converte as exceções em respostas RFC 7807 (application/problem+json). Os títulos são fixos
+ * por status; só o {@code detail} (a mensagem da exceção) muda de uma resposta para outra.
+ */
 @ControllerAdvice
 public class RestExceptionHandler {
 
+    private static final String NOT_FOUND_TITLE = "Recurso não encontrado";
+    private static final String TIMEOUT_TITLE = "Tempo limite esgotado";
+    private static final String UNAVAILABLE_TITLE = "Serviço indisponível";
+
+    @ExceptionHandler(ContactNameNotFoundException.class)
+    public ResponseEntity<ProblemDetail> handleContactNameNotFound(ContactNameNotFoundException ex) {
+        // A busca só carrega o nome; a mensagem é montada aqui, uma vez por resposta
+        return problem(HttpStatus.NOT_FOUND, NOT_FOUND_TITLE, "Contato com nome \"" + ex.getName() + "\" não encontrado");
+    }
+
     @ExceptionHandler(ResourceNotFoundException.class)
-    public ResponseEntity<String> handleResourceNotFoundException(ResourceNotFoundException ex) {
+    public ResponseEntity<ProblemDetail> handleResourceNotFoundException(ResourceNotFoundException ex) {
         // Retorna o status 404 NOT FOUND com a mensagem da exceção
-        return new ResponseEntity<>(ex.getMessage(), HttpStatus.NOT_FOUND);
+        return problem(HttpStatus.NOT_FOUND, NOT_FOUND_TITLE, ex.getMessage());
+    }
+
+    @ExceptionHandler({DeadlineExceededException.class, QueryTimeoutException.class})
+    public ResponseEntity<ProblemDetail> handleDeadlineExceeded(RuntimeException ex) {
+        // Prazo esgotado antes de pegar conexão ou consulta cancelada pelo banco: 504 GATEWAY TIMEOUT
+        return problem(HttpStatus.GATEWAY_TIMEOUT, TIMEOUT_TITLE, DeadlineExceededException.INSTANCE.getMessage());
+    }
+
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    public ResponseEntity<ProblemDetail> handleCannotCreateTransaction(CannotCreateTransactionException ex) {
+        // A transação abre a conexão antes do método: o prazo vencido chega aqui embrulhado
+        if (NestedExceptionUtils.getMostSpecificCause(ex) instanceof DeadlineExceededException) {
+            return handleDeadlineExceeded(ex);
+        }
+        return problem(HttpStatus.SERVICE_UNAVAILABLE, UNAVAILABLE_TITLE, "Banco de dados indisponível");
+    }
+
+    // O ProblemDetail é mutável (o Spring preenche o instance com a URI), por isso um novo por resposta
+    private static ResponseEntity<ProblemDetail> problem(HttpStatus status, String title, String detail) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(status, detail);
+        problem.setTitle(title);
+        return ResponseEntity.status(status).body(problem);
     }
 }
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.example.agenda.journal;
+
+import com.example.agenda.dto.ContactResponse;
+import com.example.agenda.event.ContactChangedEvent.ChangeType;
+
+import java.time.Instant;
+
+/**
+ * Uma entrada do diário de alterações: valores antes e depois, com sequência e horário.
+ */
+public record ContactChange(long sequence, Instant timestamp, ChangeType type, Long contactId,
+                            ContactResponse before, ContactResponse after) {
+}
@@ -0,0 +1,620 @@
+package com.example.agenda.journal;
+
+import com.example.agenda.dto.ContactResponse;
+import com.example.agenda.event.ContactChangedEvent;
+import com.example.agenda.event.ContactChangedEvent.ChangeType;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Diário de alterações dos contatos, só de acréscimo, em arquivos de segmento mapeados em memória.
+ * <p>
+ * Cada registro é {@code [tamanho][crc32][payload]}; um tamanho zero marca o fim do segmento.
+ * A gravação só copia bytes para o mapeamento; o flush para o disco é feito em grupo
+ * a cada {@code agenda.journal.flush-interval-ms}. Segmentos cheios são fechados e um novo
+ * começa na próxima sequência; segmentos mais antigos que a retenção são apagados na compactação.
+ * <p>
+ * A posição dos registros de cada contato fica num índice em memória, montado na abertura
+ * e atualizado a cada gravação: o histórico de um contato lê só os registros dele. Cada posição
+ * ocupa um {@code long} num array do contato (número do segmento e offset), sem um objeto por registro.
+ */
+@Component
+public class ContactJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(ContactJournal.class);
+
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int HEADER_SIZE = Integer.BYTES * 2;
+    // Posição do id do contato no payload: sequência (8) + horário (8) + tipo (1)
+    private static final int CONTACT_ID_OFFSET = Long.BYTES * 2 + 1;
+    private static final ChangeType[] TYPES = ChangeType.values();
+
+    private final Path directory;
+    private final int segmentSize;
+    private final long flushIntervalMs;
+    private final Duration retention;
+
+    // Primeira sequência de cada segmento -> arquivo
+    private final TreeMap<Long, Path> segments = new TreeMap<>();
+    // As mesmas chaves em ordem: o número de um segmento no índice é firstSegmentNumber + a posição aqui
+    private final List<Long> segmentKeys = new ArrayList<>();
+    private int firstSegmentNumber;
+    // Id do contato -> posição dos seus registros, em ordem de sequência
+    private final Map<Long, Locations> byContact = new HashMap<>();
+    private final Scratch scratch = new Scratch();
+    private final DataOutputStream encoder = new DataOutputStream(scratch);
+    private final CRC32 crc = new CRC32();
+
+    private MappedByteBuffer active;
+    private long nextSequence = 1;
+    private boolean dirty;
+    private ScheduledExecutorService scheduler;
+
+    @Autowired
+    public ContactJournal(@Value("${agenda.journal.dir:data/journal}") String directory,
+                          @Value("${agenda.journal.segment-size-mb:64}") int segmentSizeMb,
+                          @Value("${agenda.journal.flush-interval-ms:200}") long flushIntervalMs,
+                          @Value("${agenda.journal.retention-days:365}") int retentionDays) {
+        this(Path.of(directory), segmentSizeMb * 1024 * 1024, flushIntervalMs, Duration.ofDays(retentionDays));
+    }
+
+    public ContactJournal(Path directory, int segmentSize, long flushIntervalMs, Duration retention) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.retention = retention;
+    }
+
+    /**
+     * Abre os segmentos existentes e continua a partir do último registro íntegro.
+     */
+    @PostConstruct
+    public synchronized void open() throws IOException {
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(ContactJournal::isSegment)
+                    .forEach(path -> segments.put(firstSequenceOf(path), path));
+        }
+
+        if (segments.isEmpty()) {
+            startSegment(nextSequence);
+        } else {
+            segmentKeys.addAll(segments.keySet());
+            Map.Entry<Long, Path> last = segments.lastEntry();
+            int number = firstSegmentNumber;
+            for (Path closed : segments.headMap(last.getKey()).values()) {
+                int segment = number++;
+                walk(map(closed, FileChannel.MapMode.READ_ONLY),
+                        (payload, offset) -> index(segment, offset, payload.getLong(CONTACT_ID_OFFSET)));
+            }
+            active = map(last.getValue(), FileChannel.MapMode.READ_WRITE);
+            nextSequence = recover(active, last.getKey(), number);
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "contact-journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::compactExpired, 1, 60, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        flush();
+    }
+
+    /**
+     * Registra as alterações feitas pelo ContactService. Dentro de uma transação, só depois do commit.
+     * Uma falha no diário não desfaz a escrita no banco; é apenas registrada no log.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onContactChanged(ContactChangedEvent event) {
+        try {
+            append(event.type(), event.contactId(), event.before(), event.after());
+        } catch (RuntimeException e) {
+            log.error("Falha ao gravar no diário a alteração do contato {}", event.contactId(), e);
+        }
+    }
+
+    /**
+     * Acrescenta um registro e devolve a sua sequência.
+     */
+    public synchronized long append(ChangeType type, Long contactId, ContactResponse before, ContactResponse after) {
+        long sequence = nextSequence;
+        encode(sequence, System.currentTimeMillis(), type, contactId, before, after);
+
+        int recordSize = HEADER_SIZE + scratch.size();
+        if (recordSize > active.remaining()) {
+            roll(sequence);
+            if (recordSize > active.remaining()) {
+                throw new IllegalStateException("Registro de " + recordSize + " bytes maior que o segmento do diário");
+            }
+        }
+
+        index(activeSegmentNumber(), active.position(), contactId);
+        crc.reset();
+        crc.update(scratch.buffer(), 0, scratch.size());
+        active.putInt(scratch.size());
+        active.putInt((int) crc.getValue());
+        active.put(scratch.buffer(), 0, scratch.size());
+
+        nextSequence++;
+        dirty = true;
+        return sequence;
+    }
+
+    /**
+     * Sequência do último registro gravado (0 se o diário estiver vazio).
+     */
+    public synchronized long lastSequence() {
+        return nextSequence - 1;
+    }
+
+    /**
+     * Histórico de um contato, do mais antigo para o mais recente.
+     * Vai direto às posições guardadas no índice, sem percorrer os outros registros.
+     */
+    public List<ContactChange> history(Long contactId) {
+        long[] locations;
+        Map<Integer, Path> paths = new HashMap<>();
+        int activeSegment;
+        ByteBuffer current;
+        synchronized (this) {
+            Locations indexed = byContact.get(contactId);
+            if (indexed == null) {
+                return List.of();
+            }
+            locations = indexed.toArray();
+            activeSegment = activeSegmentNumber();
+            for (long location : locations) {
+                int segment = Locations.segment(location);
+                paths.putIfAbsent(segment, segments.get(segmentKeys.get(segment - firstSegmentNumber)));
+            }
+            current = active.duplicate().flip();
+        }
+
+        Map<Integer, ByteBuffer> mapped = new HashMap<>();
+        mapped.put(activeSegment, current);
+        List<ContactChange> changes = new ArrayList<>(locations.length);
+        for (long location : locations) {
+            ByteBuffer segment = mapped.computeIfAbsent(Locations.segment(location), key -> mapReadOnly(paths.get(key)));
+            // Sem segmento: apagado pela compactação durante a leitura
+            ByteBuffer payload = segment == null ? null : payloadAt(segment, Locations.offset(location));
+            if (payload != null) {
+                changes.add(decode(payload));
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Reproduz, em ordem, todos os registros a partir de {@code fromSequence} (inclusive).
+     */
+    public void replay(long fromSequence, Consumer<ContactChange> consumer) {
+        read(fromSequence, change -> {
+            consumer.accept(change);
+            return true;
+        });
+    }
+
+    /**
+     * Até {@code limit} registros a partir de {@code fromSequence} (inclusive).
+     */
+    public List<ContactChange> read(long fromSequence, int limit) {
+        List<ContactChange> changes = new ArrayList<>();
+        if (limit > 0) {
+            read(fromSequence, change -> {
+                changes.add(change);
+                return changes.size() < limit;
+            });
+        }
+        return changes;
+    }
+
+    /**
+     * Força para o disco o que foi gravado desde o último flush (flush em grupo).
+     */
+    public void flush() {
+        MappedByteBuffer toFlush;
+        synchronized (this) {
+            if (!dirty) {
+                return;
+            }
+            dirty = false;
+            toFlush = active;
+        }
+        // Fora do lock: as gravações seguem enquanto o msync acontece
+        toFlush.force();
+    }
+
+    /**
+     * Apaga os segmentos fechados cujos registros são todos anteriores a {@code cutoff}.
+     * Um segmento só é apagado se o primeiro registro do segmento seguinte também for anterior,
+     * o que garante que todo o seu conteúdo está fora da retenção. Devolve quantos foram apagados.
+     */
+    public int compact(Instant cutoff) {
+        List<Path> expired = new ArrayList<>();
+        synchronized (this) {
+            List<Map.Entry<Long, Path>> entries = new ArrayList<>(segments.entrySet());
+            // O último é o segmento ativo e nunca é apagado
+            for (int i = 0; i < entries.size() - 1; i++) {
+                Instant nextStart = firstTimestamp(entries.get(i + 1).getValue());
+                if (nextStart == null || !nextStart.isBefore(cutoff)) {
+                    break;
+                }
+                segments.remove(entries.get(i).getKey());
+                expired.add(entries.get(i).getValue());
+            }
+            if (!expired.isEmpty()) {
+                segmentKeys.subList(0, expired.size()).clear();
+                firstSegmentNumber += expired.size();
+                byContact.values().removeIf(locations -> locations.dropBefore(firstSegmentNumber));
+            }
+        }
+
+        for (Path path : expired) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                log.warn("Não foi possível apagar o segmento {} do diário", path, e);
+            }
+        }
+        return expired.size();
+    }
+
+    private void compactExpired() {
+        int removed = compact(Instant.now().minus(retention));
+        if (removed > 0) {
+            log.info("Compactação do diário apagou {} segmento(s)", removed);
+        }
+    }
+
+    // --------------------------------------------------------------------------------
+
+    private void read(long fromSequence, Predicate<ContactChange> visitor) {
+        List<Path> closed = new ArrayList<>();
+        ByteBuffer current;
+        synchronized (this) {
+            Long start = segments.floorKey(fromSequence);
+            Map<Long, Path> candidates = start == null ? segments : segments.tailMap(start, true);
+            candidates.values().forEach(closed::add);
+            // O segmento ativo é lido só até onde já foi escrito
+            closed.remove(closed.size() - 1);
+            current = active.duplicate().flip();
+        }
+
+        for (Path path : closed) {
+            ByteBuffer segment;
+            try {
+                segment = map(path, FileChannel.MapMode.READ_ONLY);
+            } catch (IOException e) {
+                // Segmento apagado pela compactação durante a leitura
+                continue;
+            }
+            if (!scan(segment, fromSequence, visitor)) {
+                return;
+            }
+        }
+        scan(current, fromSequence, visitor);
+    }
+
+    /**
+     * Percorre os registros do buffer; para no fim do segmento, em um registro corrompido
+     * ou quando o visitor devolve false (nesse caso retorna false).
+     */
+    private boolean scan(ByteBuffer buffer, long fromSequence, Predicate<ContactChange> visitor) {
+        int offset = 0;
+        ByteBuffer payload;
+        while ((payload = payloadAt(buffer, offset)) != null) {
+            offset += HEADER_SIZE + payload.capacity();
+            // Filtra pelo cabeçalho do payload antes de decodificar
+            if (payload.getLong(0) < fromSequence) {
+                continue;
+            }
+            if (!visitor.test(decode(payload))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Acha o fim do último segmento após uma reinicialização, indexa os seus registros
+     * e devolve a próxima sequência. Um final corrompido (gravação interrompida) é zerado
+     * para ser sobrescrito.
+     */
+    private long recover(MappedByteBuffer buffer, long firstSequence, int segment) {
+        long[] next = {firstSequence};
+        int end = walk(buffer, (payload, offset) -> {
+            next[0] = payload.getLong(0) + 1;
+            index(segment, offset, payload.getLong(CONTACT_ID_OFFSET));
+        });
+
+        if (end + Integer.BYTES <= buffer.capacity() && buffer.getInt(end) != 0) {
+            for (int i = end; i < buffer.capacity(); i++) {
+                buffer.put(i, (byte) 0);
+            }
+        }
+        buffer.position(end);
+        return next[0];
+    }
+
+    /**
+     * Visita, com a posição de cada um, os registros íntegros do início do buffer
+     * e devolve onde eles terminam.
+     */
+    private static int walk(ByteBuffer buffer, ObjIntConsumer<ByteBuffer> visitor) {
+        int offset = 0;
+        ByteBuffer payload;
+        while ((payload = payloadAt(buffer, offset)) != null) {
+            visitor.accept(payload, offset);
+            offset += HEADER_SIZE + payload.capacity();
+        }
+        return offset;
+    }
+
+    /**
+     * Payload do registro que começa em {@code offset}, ou null se ali não houver um registro íntegro.
+     */
+    private static ByteBuffer payloadAt(ByteBuffer buffer, int offset) {
+        if (offset > buffer.limit() - HEADER_SIZE) {
+            return null;
+        }
+        int length = buffer.getInt(offset);
+        int checksum = buffer.getInt(offset + Integer.BYTES);
+        if (length <= 0 || length > buffer.limit() - offset - HEADER_SIZE) {
+            return null;
+        }
+        ByteBuffer payload = buffer.slice(offset + HEADER_SIZE, length);
+        CRC32 check = new CRC32();
+        check.update(payload.duplicate());
+        return (int) check.getValue() == checksum ? payload : null;
+    }
+
+    private void index(int segment, int offset, long contactId) {
+        byContact.computeIfAbsent(contactId, id -> new Locations()).add(segment, offset);
+    }
+
+    private int activeSegmentNumber() {
+        return firstSegmentNumber + segmentKeys.size() - 1;
+    }
+
+    private void roll(long firstSequence) {
+        active.force();
+        try {
+            startSegment(firstSequence);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void startSegment(long firstSequence) throws IOException {
+        Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX));
+        active = map(path, FileChannel.MapMode.READ_WRITE);
+        segments.put(firstSequence, path);
+        segmentKeys.add(firstSequence);
+    }
+
+    private MappedByteBuffer map(Path path, FileChannel.MapMode mode) throws IOException {
+        if (mode == FileChannel.MapMode.READ_ONLY) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                return channel.map(mode, 0, channel.size());
+            }
+        }
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // O mapeamento continua válido depois que o canal é fechado
+            return channel.map(mode, 0, Math.max(channel.size(), segmentSize));
+        }
+    }
+
+    private ByteBuffer mapReadOnly(Path path) {
+        try {
+            return path == null ? null : map(path, FileChannel.MapMode.READ_ONLY);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private Instant firstTimestamp(Path path) {
+        try {
+            ByteBuffer segment = map(path, FileChannel.MapMode.READ_ONLY);
+            if (segment.capacity() < HEADER_SIZE + Long.BYTES * 2 || segment.getInt(0) <= 0) {
+                return null;
+            }
+            return Instant.ofEpochMilli(segment.getLong(HEADER_SIZE + Long.BYTES));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static boolean isSegment(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    private static long firstSequenceOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    // --------------------------------------------------------------------------------
+    // Codificação do payload
+
+    private void encode(long sequence, long timestamp, ChangeType type, Long contactId,
+                        ContactResponse before, ContactResponse after) {
+        scratch.reset();
+        try {
+            encoder.writeLong(sequence);
+            encoder.writeLong(timestamp);
+            encoder.writeByte(type.ordinal());
+            encoder.writeLong(contactId);
+            writeContact(before);
+            writeContact(after);
+        } catch (IOException e) {
+            // ByteArrayOutputStream não lança IOException
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeContact(ContactResponse contact) throws IOException {
+        encoder.writeBoolean(contact != null);
+        if (contact == null) {
+            return;
+        }
+        writeString(contact.getName());
+        writeString(contact.getEmail());
+        writeString(contact.getPhone());
+        writeString(contact.getNotes());
+        writeString(contact.getCreatedAt() == null ? null : contact.getCreatedAt().toString());
+    }
+
+    private void writeString(String value) throws IOException {
+        if (value == null) {
+            encoder.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        encoder.writeInt(bytes.length);
+        encoder.write(bytes);
+    }
+
+    private static ContactChange decode(ByteBuffer payload) {
+        long sequence = payload.getLong();
+        Instant timestamp = Instant.ofEpochMilli(payload.getLong());
+        ChangeType type = TYPES[payload.get()];
+        long contactId = payload.getLong();
+        ContactResponse before = readContact(payload, contactId);
+        ContactResponse after = readContact(payload, contactId);
+        return new ContactChange(sequence, timestamp, type, contactId, before, after);
+    }
+
+    private static ContactResponse readContact(ByteBuffer payload, long contactId) {
+        if (payload.get() == 0) {
+            return null;
+        }
+        String name = readString(payload);
+        String email = readString(payload);
+        String phone = readString(payload);
+        String notes = readString(payload);
+        String createdAt = readString(payload);
+        return new ContactResponse(contactId, name, email, phone, notes,
+                createdAt == null ? null : LocalDateTime.parse(createdAt));
+    }
+
+    private static String readString(ByteBuffer payload) {
+        int length = payload.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        payload.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Posições dos registros de um contato em ordem: número do segmento nos 32 bits altos,
+     * offset no segmento nos 32 baixos. Acessado só sob o lock do diário.
+     */
+    private static final class Locations {
+
+        private long[] packed = new long[2];
+        private int size;
+
+        static int segment(long location) {
+            return (int) (location >>> 32);
+        }
+
+        static int offset(long location) {
+            return (int) location;
+        }
+
+        void add(int segment, int offset) {
+            if (size == packed.length) {
+                packed = Arrays.copyOf(packed, size + (size >> 1));
+            }
+            packed[size++] = (long) segment << 32 | offset;
+        }
+
+        /**
+         * Descarta as posições de segmentos anteriores a {@code firstSegment} (sempre as primeiras)
+         * e devolve se não sobrou nenhuma.
+         */
+        boolean dropBefore(int firstSegment) {
+            int dropped = 0;
+            while (dropped < size && segment(packed[dropped]) < firstSegment) {
+                dropped++;
+            }
+            if (dropped > 0) {
+                size -= dropped;
+                // Devolve a memória dos contatos que encolheram bastante
+                packed = size < packed.length / 4
+                        ? Arrays.copyOfRange(packed, dropped, dropped + Math.max(size, 2))
+                        : shiftLeft(dropped);
+            }
+            return size == 0;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(packed, size);
+        }
+
+        private long[] shiftLeft(int dropped) {
+            System.arraycopy(packed, dropped, packed, 0, size);
+            return packed;
+        }
+    }
+
+    // Expõe o array interno para copiar direto para o mapeamento, sem toByteArray()
+    private static final class Scratch extends ByteArrayOutputStream {
+
+        Scratch() {
+            super(512);
+        }
+
+        byte[] buffer() {
+            return buf;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.agenda.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.HashSet;
+import java.util.Set;
+
+@Entity
+@Table(name = "contact_groups")
+// Sem @Data: equals/hashCode não devem tocar na coleção de membros, que é lazy
+@Getter
+@Setter
+public class ContactGroup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotBlank(message = "O nome do grupo não pode estar em branco")
+    @Column(unique = true, nullable = false, length = 50)
+    private String name;
+
+    // Tabela de ligação grupo x contato. Não é carregada no dia a dia:
+    // as consultas de pertinência usam o ContactGroupIndex em memória.
+    // Não há chave estrangeira para contacts (ver ContactGroupService.addContact).
+    @ElementCollection
+    @CollectionTable(name = "contact_group_members", joinColumns = @JoinColumn(name = "group_id"))
+    @Column(name = "contact_id", nullable = false)
+    private Set<Long> contactIds = new HashSet<>();
+}
@@ -0,0 +1,47 @@
+package com.example.agenda.repository;
+
+import com.example.agenda.model.ContactGroup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface ContactGroupRepository extends JpaRepository<ContactGroup, Long> {
+
+    Optional<ContactGroup> findByName(String name);
+
+    /**
+     * Pares [nome do grupo, id do contato] para montar o índice em memória.
+     */
+    @Query("select g.name, m from ContactGroup g join g.contactIds m")
+    Stream<Object[]> streamMemberships();
+
+    // Inserção/remoção direta na tabela de ligação, sem carregar a coleção inteira do grupo.
+    // Cada uma roda na própria transação quando chamada fora de uma (inclusão e remoção de membro)
+    @Transactional
+    @Modifying
+    @Query(value = "insert into contact_group_members (group_id, contact_id) values (:groupId, :contactId)", nativeQuery = true)
+    int addMember(@Param("groupId") Long groupId, @Param("contactId") Long contactId);
+
+    @Transactional
+    @Modifying
+    @Query(value = "delete from contact_group_members where group_id = :groupId and contact_id = :contactId", nativeQuery = true)
+    int removeMember(@Param("groupId") Long groupId, @Param("contactId") Long contactId);
+
+    @Transactional
+    @Modifying
+    @Query(value = "delete from contact_group_members where contact_id = :contactId", nativeQuery = true)
+    int removeContactFromAllGroups(@Param("contactId") Long contactId);
+
+    // Mesma limpeza, chamada depois do commit da exclusão: precisa de uma transação nova,
+    // senão participaria da que acabou de terminar
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query(value = "delete from contact_group_members where contact_id = :contactId", nativeQuery = true)
+    int removeContactFromAllGroupsAfterCommit(@Param("contactId") Long contactId);
+}
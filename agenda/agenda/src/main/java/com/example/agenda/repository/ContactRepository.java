@@ -1,12 +1,59 @@
 package com.example.agenda.repository;
 
+import com.example.agenda.dto.ContactResponse;
 import com.example.agenda.model.Contact;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ContactRepository extends JpaRepository<Contact, Long> {
     List<Contact> findByNameContainingIgnoreCase(String name);
     Optional<Contact> findByPhone(String phone);
+
+    @Query("select c.phone from Contact c where c.phone in :phones")
+    List<String> findExistingPhones(@Param("phones") Collection<String> phones);
+
+    // Agregados usados para conferir as estatísticas mantidas em memória
+
+    @Query("select count(c) from Contact c where c.email is null or trim(c.email) = ''")
+    long countMissingEmail();
+
+    @Query("select count(c) from Contact c where c.phone is null or trim(c.phone) = ''")
+    long countMissingPhone();
+
+    @Query("select cast(c.createdAt as LocalDate), count(c) from Contact c where c.createdAt >= :since "
+            + "group by cast(c.createdAt as LocalDate)")
+    List<Object[]> countCreatedPerDay(@Param("since") LocalDateTime since);
+
+    @Query("select lower(substring(c.email, locate('@', c.email) + 1)), count(c) from Contact c "
+            + "where locate('@', c.email) > 0 group by lower(substring(c.email, locate('@', c.email) + 1))")
+    List<Object[]> countPerEmailDomain();
+
+    /**
+     * Lê todos os contatos por cursor, já projetados em DTO (sem entidades gerenciadas).
+     * Deve ser consumido dentro de uma transação e fechado ao final.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.example.agenda.dto.ContactResponse(c.id, c.name, c.email, c.phone, c.notes, c.createdAt) "
+            + "from Contact c order by c.id")
+    Stream<ContactResponse> streamAll();
+
+    /**
+     * Uma página de contatos já projetada em DTO, em ordem de id.
+     */
+    @Query(value = "select new com.example.agenda.dto.ContactResponse(c.id, c.name, c.email, c.phone, c.notes, c.createdAt) "
+            + "from Contact c order by c.id",
+            countQuery = "select count(c) from Contact c")
+    Page<ContactResponse> findPage(Pageable pageable);
 }
@@ -0,0 +1,31 @@
+package com.example.agenda.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Efeitos em memória (caches, índices) que só podem valer depois que a escrita no banco
+ * for confirmada: aplicados antes do commit, ficariam visíveis mesmo se a transação
+ * fosse desfeita, ou seriam desfeitos por uma leitura feita nesse intervalo.
+ */
+final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    /**
+     * Roda a ação depois do commit da transação atual (ou na hora, se não houver transação).
+     */
+    static void run(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.agenda.service;
+
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Pertinência dos contatos aos grupos em bitmaps comprimidos (Roaring), um por grupo,
+ * indexados pelo id do contato. Combinações como "em A e B, mas não em C" viram
+ * operações entre bitmaps em memória, sem joins no banco.
+ */
+@Component
+public class ContactGroupIndex {
+
+    private final Map<String, RoaringBitmap> groups = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Substitui o índice inteiro (carga inicial a partir da tabela de ligação).
+     */
+    public void replaceAll(Map<String, RoaringBitmap> loaded) {
+        lock.writeLock().lock();
+        try {
+            groups.clear();
+            groups.putAll(loaded);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void addGroup(String group) {
+        lock.writeLock().lock();
+        try {
+            groups.putIfAbsent(group, new RoaringBitmap());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeGroup(String group) {
+        lock.writeLock().lock();
+        try {
+            groups.remove(group);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean contains(String group, long contactId) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap members = groups.get(group);
+            return members != null && isIndexable(contactId) && members.contains(toIndex(contactId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void add(String group, long contactId) {
+        lock.writeLock().lock();
+        try {
+            groups.computeIfAbsent(group, name -> new RoaringBitmap()).add(toIndex(contactId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String group, long contactId) {
+        lock.writeLock().lock();
+        try {
+            RoaringBitmap members = groups.get(group);
+            if (members != null && isIndexable(contactId)) {
+                members.remove(toIndex(contactId));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeContact(long contactId) {
+        if (!isIndexable(contactId)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            int index = toIndex(contactId);
+            groups.values().forEach(members -> members.remove(index));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public long size(String group) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap members = groups.get(group);
+            return members == null ? 0 : members.getLongCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Contatos que estão em todos os grupos de {@code all}, em pelo menos um de {@code any}
+     * e em nenhum de {@code none}. Grupos desconhecidos contam como vazios.
+     * Sem {@code all} nem {@code any} o resultado é vazio.
+     * O bitmap devolvido é uma cópia e pode ser usado fora do lock.
+     */
+    public RoaringBitmap filter(Collection<String> all, Collection<String> any, Collection<String> none) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap result = null;
+            for (String group : all) {
+                RoaringBitmap members = members(group);
+                result = result == null ? members.clone() : RoaringBitmap.and(result, members);
+            }
+            if (!any.isEmpty()) {
+                RoaringBitmap union = FastAggregation.or(any.stream().map(this::members).iterator());
+                result = result == null ? union : RoaringBitmap.and(result, union);
+            }
+            if (result == null) {
+                return new RoaringBitmap();
+            }
+            for (String group : none) {
+                result.andNot(members(group));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private RoaringBitmap members(String group) {
+        RoaringBitmap members = groups.get(group);
+        return members == null ? new RoaringBitmap() : members;
+    }
+
+    /**
+     * Os ids são IDENTITY positivos; o bitmap de 32 bits cobre de 0 a Integer.MAX_VALUE.
+     * Um id fora dessa faixa não pode estar em nenhum grupo.
+     */
+    public static boolean isIndexable(long contactId) {
+        return contactId >= 0 && contactId <= Integer.MAX_VALUE;
+    }
+
+    static int toIndex(long contactId) {
+        return Math.toIntExact(contactId);
+    }
+}
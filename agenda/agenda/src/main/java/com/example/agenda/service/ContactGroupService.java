@@ -0,0 +1,201 @@
+package com.example.agenda.service;
+
+import com.example.agenda.dto.ContactGroupRequest;
+import com.example.agenda.dto.ContactGroupResponse;
+import com.example.agenda.dto.ContactPageResponse;
+import com.example.agenda.dto.ContactResponse;
+import com.example.agenda.event.ContactChangedEvent;
+import com.example.agenda.exception.ResourceNotFoundException;
+import com.example.agenda.model.Contact;
+import com.example.agenda.model.ContactGroup;
+import com.example.agenda.repository.ContactGroupRepository;
+import com.example.agenda.repository.ContactRepository;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Grupos de contatos (clientes, fornecedores, família...). A tabela de ligação é a fonte
+ * da verdade; filtros e contagens são respondidos pelo {@link ContactGroupIndex}, que só
+ * recebe as alterações depois que elas são confirmadas no banco.
+ */
+@Service
+public class ContactGroupService {
+
+    private final ContactGroupRepository groupRepository;
+    private final ContactRepository contactRepository;
+    private final ContactGroupIndex index;
+
+    public ContactGroupService(ContactGroupRepository groupRepository, ContactRepository contactRepository,
+                               ContactGroupIndex index) {
+        this.groupRepository = groupRepository;
+        this.contactRepository = contactRepository;
+        this.index = index;
+    }
+
+    /**
+     * Monta o índice em memória a partir da tabela de ligação ao subir a aplicação.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadIndex() {
+        Map<String, RoaringBitmap> loaded = new HashMap<>();
+        groupRepository.findAll().forEach(group -> loaded.put(group.getName(), new RoaringBitmap()));
+        try (Stream<Object[]> memberships = groupRepository.streamMemberships()) {
+            memberships.forEach(row -> loaded.computeIfAbsent((String) row[0], name -> new RoaringBitmap())
+                    .add(ContactGroupIndex.toIndex((Long) row[1])));
+        }
+        index.replaceAll(loaded);
+    }
+
+    /**
+     * Cria um grupo. Se já existir um grupo com o mesmo nome, devolve o existente.
+     */
+    public ContactGroupResponse create(ContactGroupRequest request) {
+        ContactGroup group = groupRepository.findByName(request.getName())
+                .orElseGet(() -> {
+                    ContactGroup created = new ContactGroup();
+                    created.setName(request.getName());
+                    return groupRepository.save(created);
+                });
+        AfterCommit.run(() -> index.addGroup(group.getName()));
+
+        return toResponse(group);
+    }
+
+    /**
+     * Lista os grupos com a quantidade de membros (contada no índice).
+     */
+    public List<ContactGroupResponse> findAll() {
+        return groupRepository.findAll().stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Exclui um grupo e as suas ligações. Lança 404 se o grupo não existir.
+     */
+    public void delete(String name) {
+        ContactGroup group = findGroup(name);
+        groupRepository.delete(group);
+        AfterCommit.run(() -> index.removeGroup(name));
+    }
+
+    /**
+     * Coloca um contato em um grupo. Lança 404 se o grupo ou o contato não existirem.
+     * Adicionar quem já é membro não muda nada, mesmo em duas requisições simultâneas.
+     * <p>
+     * A tabela de ligação vem de um {@code @ElementCollection} de ids, sem chave estrangeira
+     * para {@code contacts}: nada impede o insert de um contato excluído depois da primeira
+     * consulta. Por isso a existência é conferida de novo depois do insert (e a ligação desfeita),
+     * e a exclusão do contato repete a limpeza depois do commit dela: um dos dois lados sempre
+     * enxerga o outro.
+     */
+    public ContactGroupResponse addContact(String name, Long contactId) {
+        ContactGroup group = findGroup(name);
+        if (!contactRepository.existsById(contactId)) {
+            throw new ResourceNotFoundException("Contato não encontrado");
+        }
+
+        if (!index.contains(name, contactId)) {
+            try {
+                groupRepository.addMember(group.getId(), contactId);
+            } catch (DataIntegrityViolationException e) {
+                // Chave primária repetida: outra requisição incluiu o contato antes desta
+            }
+            AfterCommit.run(() -> index.add(name, contactId));
+
+            if (!contactRepository.existsById(contactId)) {
+                groupRepository.removeMember(group.getId(), contactId);
+                AfterCommit.run(() -> index.remove(name, contactId));
+                throw new ResourceNotFoundException("Contato não encontrado");
+            }
+        }
+        return toResponse(group);
+    }
+
+    /**
+     * Tira um contato de um grupo. Lança 404 se o grupo não existir.
+     */
+    public ContactGroupResponse removeContact(String name, Long contactId) {
+        ContactGroup group = findGroup(name);
+
+        groupRepository.removeMember(group.getId(), contactId);
+        AfterCommit.run(() -> index.remove(name, contactId));
+        return toResponse(group);
+    }
+
+    /**
+     * Quantos contatos atendem ao filtro, sem ir ao banco.
+     */
+    public long count(Collection<String> all, Collection<String> any, Collection<String> none) {
+        return index.filter(all, any, none).getLongCardinality();
+    }
+
+    /**
+     * Página de contatos que atendem ao filtro, em ordem de id.
+     * Só os ids da página pedida são buscados no banco.
+     */
+    public ContactPageResponse filter(Collection<String> all, Collection<String> any, Collection<String> none,
+                                      int page, int size) {
+        RoaringBitmap matches = index.filter(all, any, none);
+        long total = matches.getLongCardinality();
+        long offset = (long) page * size;
+
+        List<Long> ids = new ArrayList<>(size);
+        if (offset < total) {
+            PeekableIntIterator it = matches.getIntIterator();
+            it.advanceIfNeeded(matches.select((int) offset));
+            while (it.hasNext() && ids.size() < size) {
+                ids.add((long) it.next());
+            }
+        }
+
+        List<ContactResponse> content = ids.isEmpty() ? List.of() : contactRepository.findAllById(ids).stream()
+                .sorted(Comparator.comparing(Contact::getId))
+                .map(ContactResponse::fromEntity)
+                .collect(Collectors.toList());
+
+        return new ContactPageResponse(content, page, size, total);
+    }
+
+    /**
+     * Contato excluído sai de todos os grupos: no banco junto com a exclusão (e outra vez depois
+     * do commit, ver {@link #addContact}), no índice só depois do commit (se a exclusão for desfeita, o índice continua certo).
+     */
+    @EventListener
+    @Transactional
+    public void onContactChanged(ContactChangedEvent event) {
+        if (event.type() == ContactChangedEvent.ChangeType.DELETED) {
+            groupRepository.removeContactFromAllGroups(event.contactId());
+            long contactId = event.contactId();
+            AfterCommit.run(() -> {
+                // Apaga de novo o que um addContact simultâneo possa ter inserido antes do commit
+                groupRepository.removeContactFromAllGroupsAfterCommit(contactId);
+                index.removeContact(contactId);
+            });
+        }
+    }
+
+    private ContactGroup findGroup(String name) {
+        return groupRepository.findByName(name)
+                .orElseThrow(() -> new ResourceNotFoundException("Grupo não encontrado"));
+    }
+
+    private ContactGroupResponse toResponse(ContactGroup group) {
+        return new ContactGroupResponse(group.getId(), group.getName(), index.size(group.getName()));
+    }
+}
@@ -1,23 +1,53 @@
 package com.example.agenda.service;
 
+import com.example.agenda.dto.ContactPageResponse;
 import com.example.agenda.dto.ContactRequest;
 import com.example.agenda.dto.ContactResponse;
+import com.example.agenda.event.ContactChangedEvent;
+import com.example.agenda.event.ContactChangedEvent.ChangeType;
+import com.example.agenda.exception.ContactNameNotFoundException;
 import com.example.agenda.exception.ResourceNotFoundException; // Importe a nova exceção
 import com.example.agenda.model.Contact;
 import com.example.agenda.repository.ContactRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class ContactService {
 
+    // Erros esperados com mensagem fixa: pré-alocados, sem stack trace
+    private static final ResourceNotFoundException CONTACT_NOT_FOUND =
+            new ResourceNotFoundException("Contato não encontrado");
+    private static final ResourceNotFoundException PHONE_NOT_FOUND =
+            new ResourceNotFoundException("Nenhum contato encontrado com este telefone");
+    private static final ResourceNotFoundException CONTACT_DOES_NOT_EXIST =
+            new ResourceNotFoundException("Contato não existe");
+
     private final ContactRepository repository;
+    private final ApplicationEventPublisher events;
+
+    // Consultas idênticas e simultâneas compartilham a mesma ida ao banco
+    private final SingleFlight<Long, ContactResponse> findByIdFlight = new SingleFlight<>("findById");
+    private final SingleFlight<String, List<ContactResponse>> findByNameFlight = new SingleFlight<>("findByName");
+    private final SingleFlight<String, ContactResponse> findByPhoneFlight = new SingleFlight<>("findByPhone");
+
+    // Busca por nome sem resultado: 404 (padrão) ou 200 com lista vazia
+    @Value("${agenda.search.empty-as-not-found:true}")
+    private boolean emptySearchAsNotFound = true;
 
     // Injeção de dependência via construtor
-    public ContactService(ContactRepository repository) {
+    public ContactService(ContactRepository repository, ApplicationEventPublisher events) {
         this.repository = repository;
+        this.events = events;
     }
 
     /**
@@ -25,21 +55,36 @@ public class ContactService {
      * Captura o retorno de repository.save() para garantir que o ID seja mapeado.
      */
     public ContactResponse create(ContactRequest request) {
-        Contact contact = new Contact();
-        contact.setName(request.getName());
-        contact.setEmail(request.getEmail());
-        contact.setPhone(request.getPhone());
-        contact.setNotes(request.getNotes());
-        contact.setCreatedAt(LocalDateTime.now());
+        Contact contact = toEntity(request);
 
         // CORREÇÃO ESSENCIAL: Captura o objeto retornado pelo save, que contém o ID gerado pelo DB.
         Contact savedContact = repository.save(contact);
+        ContactResponse response = ContactResponse.fromEntity(savedContact);
+        AfterCommit.run(this::forgetSearches);
+        events.publishEvent(new ContactChangedEvent(ChangeType.CREATED, savedContact.getId(), null, response));
+
+        return response;
+    }
+
+    /**
+     * Cria vários contatos em uma única transação (usado pela importação em lote).
+     * Retorna quantos foram gravados.
+     */
+    public int createAll(List<ContactRequest> requests) {
+        List<Contact> contacts = requests.stream()
+                .map(this::toEntity)
+                .collect(Collectors.toList());
 
-        return ContactResponse.fromEntity(savedContact);
+        List<Contact> saved = repository.saveAll(contacts);
+        AfterCommit.run(this::forgetSearches);
+        saved.forEach(contact -> events.publishEvent(
+                new ContactChangedEvent(ChangeType.CREATED, contact.getId(), null, ContactResponse.fromEntity(contact))));
+        return saved.size();
     }
 
     /**
-     * Retorna todos os contatos.
+     * Retorna todos os contatos. A lista inteira fica em memória: para agendas grandes,
+     * use {@link #findPage(int, int)} ou {@link #streamAll(Consumer)}.
      */
     public List<ContactResponse> findAll() {
         return repository.findAll().stream()
@@ -47,50 +92,84 @@ public class ContactService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Retorna uma página de contatos em ordem de id, sem carregar os demais.
+     */
+    public ContactPageResponse findPage(int page, int size) {
+        Page<ContactResponse> result = repository.findPage(PageRequest.of(page, size));
+        return new ContactPageResponse(result.getContent(), page, size, result.getTotalElements());
+    }
+
+    /**
+     * Percorre todos os contatos um a um, sem montar a lista inteira em memória.
+     * O cursor permanece aberto enquanto o consumer escreve, então um cliente lento
+     * segura a leitura (backpressure) em vez de acumular resultados no heap.
+     */
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<ContactResponse> consumer) {
+        try (Stream<ContactResponse> contacts = repository.streamAll()) {
+            contacts.forEach(consumer);
+        }
+    }
+
     /**
      * Busca um contato por ID. Lança 404 se não encontrado.
      */
     public ContactResponse findById(Long id) {
-        Contact contact = repository.findById(id)
-                // Lança 404 Not Found (via RestExceptionHandler) se não encontrado
-                .orElseThrow(() -> new ResourceNotFoundException("Contato não encontrado"));
+        return findByIdFlight.execute(id, () -> {
+            Contact contact = repository.findById(id)
+                    // Lança 404 Not Found (via RestExceptionHandler) se não encontrado
+                    .orElseThrow(() -> CONTACT_NOT_FOUND);
 
-        return ContactResponse.fromEntity(contact);
+            return ContactResponse.fromEntity(contact);
+        });
     }
 
     /**
-     * Busca contatos por parte do nome. Lança 404 se não encontrado.
+     * Busca contatos por parte do nome. Lança 404 se não encontrado,
+     * ou devolve lista vazia se {@code agenda.search.empty-as-not-found=false}.
      */
     public List<ContactResponse> findByName(String name) {
-        List<Contact> contacts = repository.findByNameContainingIgnoreCase(name);
-
-        if (contacts.isEmpty()) {
-            throw new ResourceNotFoundException("Contato com nome \"" + name + " \"não encontrado");
-        }
-
-        return contacts.stream()
-                .map(ContactResponse::fromEntity)
-                .collect(Collectors.toList());
+        return findByNameFlight.execute(name, () -> {
+            List<Contact> contacts = repository.findByNameContainingIgnoreCase(name);
+
+            if (contacts.isEmpty()) {
+                if (!emptySearchAsNotFound) {
+                    return List.of();
+                }
+                // Sem concatenar a mensagem aqui: o detail com o nome é montado no RestExceptionHandler
+                throw new ContactNameNotFoundException(name);
+            }
+
+            return contacts.stream()
+                    .map(ContactResponse::fromEntity)
+                    .collect(Collectors.toList());
+        });
     }
 
     /**
      * Busca um contato por telefone. Lança 404 se não encontrado.
      */
     public ContactResponse findByPhone(String phone) {
-        Contact contact = repository.findByPhone(phone)
-                // Lança 404 Not Found se não encontrado
-                .orElseThrow(() -> new ResourceNotFoundException("Nenhum contato encontardo emo este telefone"));
+        return findByPhoneFlight.execute(phone, () -> {
+            Contact contact = repository.findByPhone(phone)
+                    // Lança 404 Not Found se não encontrado
+                    .orElseThrow(() -> PHONE_NOT_FOUND);
 
-        return ContactResponse.fromEntity(contact);
+            return ContactResponse.fromEntity(contact);
+        });
     }
 
     /**
      * Atualiza um contato existente. Lança 404 se o contato não existir.
+     * Na mesma transação a entidade lida continua gerenciada, então o save não faz um segundo select.
      */
+    @Transactional
     public ContactResponse update(Long id, ContactRequest request) {
         Contact contact = repository.findById(id)
                 // Lança 404 Not Found se não encontrado
-                .orElseThrow(() -> new ResourceNotFoundException("Contato não encontrado"));
+                .orElseThrow(() -> CONTACT_NOT_FOUND);
+        ContactResponse before = ContactResponse.fromEntity(contact);
 
         contact.setName(request.getName());
         contact.setEmail(request.getEmail());
@@ -98,18 +177,55 @@ public class ContactService {
         contact.setNotes(request.getNotes());
 
         Contact updatedContact = repository.save(contact);
-
-        return ContactResponse.fromEntity(updatedContact);
+        ContactResponse response = ContactResponse.fromEntity(updatedContact);
+        AfterCommit.run(() -> {
+            findByIdFlight.forget(id);
+            forgetSearches();
+        });
+        events.publishEvent(new ContactChangedEvent(ChangeType.UPDATED, id, before, response));
+
+        return response;
     }
 
     /**
      * Deleta um contato por ID. Lança 404 se o contato não existir.
+     * O contato é carregado antes para que o evento leve os valores excluídos.
      */
+    @Transactional
     public void delete(Long id) {
-        if (!repository.existsById(id)) {
-            // Lança 404 Not Found se o ID não for encontrado
-            throw new ResourceNotFoundException("Contato não existe");
-        }
-        repository.deleteById(id);
+        Contact contact = repository.findById(id)
+                // Lança 404 Not Found se o ID não for encontrado
+                .orElseThrow(() -> CONTACT_DOES_NOT_EXIST);
+        ContactResponse before = ContactResponse.fromEntity(contact);
+
+        repository.delete(contact);
+        AfterCommit.run(() -> {
+            findByIdFlight.forget(id);
+            forgetSearches();
+        });
+        events.publishEvent(new ContactChangedEvent(ChangeType.DELETED, id, before, null));
+    }
+
+    /**
+     * Estatísticas das consultas compartilhadas, expostas como métricas.
+     */
+    public List<SingleFlight<?, ?>> getLookupFlights() {
+        return List.of(findByIdFlight, findByNameFlight, findByPhoneFlight);
+    }
+
+    // Nome e telefone podem passar a casar com outro contato após qualquer escrita
+    private void forgetSearches() {
+        findByNameFlight.forgetAll();
+        findByPhoneFlight.forgetAll();
+    }
+
+    private Contact toEntity(ContactRequest request) {
+        Contact contact = new Contact();
+        contact.setName(request.getName());
+        contact.setEmail(request.getEmail());
+        contact.setPhone(request.getPhone());
+        contact.setNotes(request.getNotes());
+        contact.setCreatedAt(LocalDateTime.now());
+        return contact;
     }
 }
\ No newline at end of file
@@ -0,0 +1,336 @@
+package com.example.agenda.service;
+
+import com.example.agenda.dto.ContactResponse;
+import com.example.agenda.dto.ContactStatsResponse;
+import com.example.agenda.dto.ContactStatsResponse.DailyCount;
+import com.example.agenda.dto.ContactStatsResponse.DomainCount;
+import com.example.agenda.event.ContactChangedEvent;
+import com.example.agenda.repository.ContactRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Estatísticas da agenda mantidas em memória. Cada escrita do {@link ContactService} ajusta os
+ * contadores; de tempos em tempos eles são recalculados no banco para corrigir qualquer desvio.
+ * <p>
+ * Os contadores são guardados pelo monitor deste serviço: uma alteração e a troca feita pelo
+ * recálculo nunca se intercalam, e o recálculo só é aceito se nenhuma escrita terminou ou
+ * estava em andamento enquanto o banco era lido.
+ */
+@Service
+public class ContactStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(ContactStatsService.class);
+
+    private static final int RECONCILE_ATTEMPTS = 3;
+    private static final long RECONCILE_RETRY_DELAY_MS = 200;
+
+    private final ContactRepository repository;
+    private final int days;
+    private final int topDomains;
+    private final Clock clock;
+
+    // Escritas que já publicaram o evento e ainda não terminaram (commit ou rollback)
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private Counters counters;
+    private Instant lastReconciledAt;
+
+    // Versão dos contadores: a resposta montada só é refeita quando algo mudou ou o dia virou
+    private volatile long version;
+    private volatile Snapshot snapshot;
+
+    @Autowired
+    public ContactStatsService(ContactRepository repository,
+                               @Value("${agenda.stats.days:30}") int days,
+                               @Value("${agenda.stats.top-domains:10}") int topDomains) {
+        this(repository, days, topDomains, Clock.systemDefaultZone());
+    }
+
+    ContactStatsService(ContactRepository repository, int days, int topDomains, Clock clock) {
+        this.repository = repository;
+        this.days = days;
+        this.topDomains = topDomains;
+        this.clock = clock;
+        this.counters = new Counters(days);
+    }
+
+    /**
+     * Aplica a alteração aos contadores depois do commit (ou na hora, se não houver transação).
+     * A escrita fica registrada como pendente desde a publicação do evento até o fim da transação,
+     * para que um recálculo feito nesse intervalo seja descartado.
+     */
+    @EventListener
+    public void onContactChanged(ContactChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(event);
+            return;
+        }
+        pending.incrementAndGet();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                try {
+                    if (status == STATUS_COMMITTED) {
+                        apply(event);
+                    }
+                } finally {
+                    pending.decrementAndGet();
+                }
+            }
+        });
+    }
+
+    private synchronized void apply(ContactChangedEvent event) {
+        LocalDate today = LocalDate.now(clock);
+        if (event.before() != null) {
+            counters.apply(event.before(), -1, today);
+        }
+        if (event.after() != null) {
+            counters.apply(event.after(), 1, today);
+        }
+        version++;
+    }
+
+    /**
+     * Recalcula os contadores no banco e substitui os mantidos em memória. Se alguma escrita
+     * terminar ou estiver em andamento durante a leitura, o resultado é descartado e a leitura
+     * é refeita; depois de {@value #RECONCILE_ATTEMPTS} tentativas, fica para a próxima execução
+     * (na primeira carga, sem contadores confiáveis, o último resultado é aceito assim mesmo).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${agenda.stats.reconcile-interval-ms:600000}",
+            initialDelayString = "${agenda.stats.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        for (int attempt = 1; attempt <= RECONCILE_ATTEMPTS; attempt++) {
+            if (attempt > 1) {
+                try {
+                    Thread.sleep(RECONCILE_RETRY_DELAY_MS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            if (tryReconcile(attempt == RECONCILE_ATTEMPTS)) {
+                return;
+            }
+        }
+        log.info("Recálculo das estatísticas adiado: houve escritas durante as {} tentativas", RECONCILE_ATTEMPTS);
+    }
+
+    private boolean tryReconcile(boolean lastAttempt) {
+        long startVersion;
+        boolean firstLoad;
+        synchronized (this) {
+            startVersion = version;
+            firstLoad = lastReconciledAt == null;
+        }
+        boolean quietAtStart = pending.get() == 0;
+
+        LocalDate today = LocalDate.now(clock);
+        Counters loaded = new Counters(days);
+        loaded.total = repository.count();
+        loaded.missingEmail = repository.countMissingEmail();
+        loaded.missingPhone = repository.countMissingPhone();
+        for (Object[] row : repository.countCreatedPerDay(windowStart(today).atStartOfDay())) {
+            loaded.addCreated((LocalDate) row[0], ((Number) row[1]).longValue(), today);
+        }
+        for (Object[] row : repository.countPerEmailDomain()) {
+            loaded.addDomain((String) row[0], ((Number) row[1]).longValue());
+        }
+
+        synchronized (this) {
+            boolean consistent = quietAtStart && pending.get() == 0 && version == startVersion;
+            if (!consistent && !(firstLoad && lastAttempt)) {
+                return false;
+            }
+            if (!firstLoad && !counters.sameAs(loaded, today)) {
+                log.warn("Estatísticas em memória divergiam do banco (total {} x {}); valores corrigidos",
+                        counters.total, loaded.total);
+            }
+            counters = loaded;
+            lastReconciledAt = Instant.now(clock);
+            version++;
+            return true;
+        }
+    }
+
+    public ContactStatsResponse getStats() {
+        LocalDate today = LocalDate.now(clock);
+        Snapshot cached = snapshot;
+        if (cached != null && cached.version() == version && cached.day().equals(today)) {
+            return cached.response();
+        }
+        synchronized (this) {
+            ContactStatsResponse response = build(today);
+            snapshot = new Snapshot(version, today, response);
+            return response;
+        }
+    }
+
+    // Só lê a janela de dias e os primeiros domínios: nada é ordenado aqui
+    private ContactStatsResponse build(LocalDate today) {
+        List<DailyCount> createdPerDay = new ArrayList<>();
+        for (LocalDate day = windowStart(today); !day.isAfter(today); day = day.plusDays(1)) {
+            long count = counters.createdOn(day);
+            if (count != 0) {
+                createdPerDay.add(new DailyCount(day, count));
+            }
+        }
+
+        ContactStatsResponse response = new ContactStatsResponse();
+        response.setTotalContacts(counters.total);
+        response.setMissingEmail(counters.missingEmail);
+        response.setMissingPhone(counters.missingPhone);
+        response.setCreatedPerDay(createdPerDay);
+        response.setTopEmailDomains(counters.ranking.stream()
+                .limit(topDomains)
+                .map(rank -> new DomainCount(rank.domain(), rank.count()))
+                .toList());
+        response.setLastReconciledAt(lastReconciledAt);
+        return response;
+    }
+
+    private LocalDate windowStart(LocalDate today) {
+        return today.minusDays(days - 1L);
+    }
+
+    static String emailDomain(String email) {
+        if (email == null) {
+            return null;
+        }
+        int at = email.indexOf('@');
+        return at < 0 ? null : email.substring(at + 1).toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isMissing(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    private record Snapshot(long version, LocalDate day, ContactStatsResponse response) {
+    }
+
+    // Ordem do ranking: maior contagem primeiro, empate pelo nome do domínio
+    private record DomainRank(String domain, long count) implements Comparable<DomainRank> {
+
+        @Override
+        public int compareTo(DomainRank other) {
+            int byCount = Long.compare(other.count, count);
+            return byCount != 0 ? byCount : domain.compareTo(other.domain);
+        }
+    }
+
+    /**
+     * Contadores sem sincronização própria; acessados só pelo monitor do serviço.
+     */
+    private static final class Counters {
+
+        private long total;
+        private long missingEmail;
+        private long missingPhone;
+
+        // Criados por dia num anel com uma posição por dia da janela, indexado pelo epoch day.
+        // Uma posição é reaproveitada quando o dia que ela guardava sai da janela.
+        private final long[] dayOf;
+        private final long[] createdOnDay;
+
+        // Contagem por domínio e os mesmos domínios em ordem de contagem: cada alteração
+        // reposiciona um domínio e o top-k é o começo do conjunto
+        private final Map<String, Long> emailDomains = new HashMap<>();
+        private final NavigableSet<DomainRank> ranking = new TreeSet<>();
+
+        private Counters(int days) {
+            dayOf = new long[days];
+            createdOnDay = new long[days];
+            Arrays.fill(dayOf, Long.MIN_VALUE);
+        }
+
+        private void apply(ContactResponse contact, int delta, LocalDate today) {
+            total += delta;
+            if (isMissing(contact.getEmail())) {
+                missingEmail += delta;
+            }
+            if (isMissing(contact.getPhone())) {
+                missingPhone += delta;
+            }
+            if (contact.getCreatedAt() != null) {
+                addCreated(contact.getCreatedAt().toLocalDate(), delta, today);
+            }
+            String domain = emailDomain(contact.getEmail());
+            if (domain != null) {
+                addDomain(domain, delta);
+            }
+        }
+
+        // Dias fora da janela são ignorados
+        private void addCreated(LocalDate date, long delta, LocalDate today) {
+            long day = date.toEpochDay();
+            long newest = today.toEpochDay();
+            if (day > newest || day <= newest - dayOf.length) {
+                return;
+            }
+            int slot = Math.floorMod(day, dayOf.length);
+            if (dayOf[slot] != day) {
+                dayOf[slot] = day;
+                createdOnDay[slot] = 0;
+            }
+            createdOnDay[slot] += delta;
+        }
+
+        private long createdOn(LocalDate date) {
+            long day = date.toEpochDay();
+            int slot = Math.floorMod(day, dayOf.length);
+            return dayOf[slot] == day ? createdOnDay[slot] : 0;
+        }
+
+        // Remove o domínio quando a contagem zera, para não acumular domínios antigos
+        private void addDomain(String domain, long delta) {
+            Long current = emailDomains.get(domain);
+            if (current != null) {
+                ranking.remove(new DomainRank(domain, current));
+            }
+            long updated = (current == null ? 0 : current) + delta;
+            if (updated == 0) {
+                emailDomains.remove(domain);
+                return;
+            }
+            emailDomains.put(domain, updated);
+            ranking.add(new DomainRank(domain, updated));
+        }
+
+        private boolean sameAs(Counters other, LocalDate today) {
+            if (total != other.total || missingEmail != other.missingEmail || missingPhone != other.missingPhone
+                    || !emailDomains.equals(other.emailDomains)) {
+                return false;
+            }
+            for (int i = 0; i < dayOf.length; i++) {
+                LocalDate day = today.minusDays(i);
+                if (createdOn(day) != other.createdOn(day)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
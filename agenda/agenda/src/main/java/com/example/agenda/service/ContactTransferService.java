@@ -0,0 +1,152 @@
+package com.example.agenda.service;
+
+import com.example.agenda.dto.ContactImportResult;
+import com.example.agenda.dto.ContactRequest;
+import com.example.agenda.format.ContactCodec;
+import com.example.agenda.format.ContactFormat;
+import com.example.agenda.format.ContactRecord;
+import com.example.agenda.format.ContactRecordReader;
+import com.example.agenda.repository.ContactRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Importação e exportação da agenda em arquivo, com memória constante:
+ * a exportação escreve direto do cursor e a importação grava em lotes de {@link #BATCH_SIZE}.
+ */
+@Service
+public class ContactTransferService {
+
+    private static final Logger log = LoggerFactory.getLogger(ContactTransferService.class);
+
+    static final int BATCH_SIZE = 500;
+
+    private final ContactService contactService;
+    private final ContactRepository repository;
+
+    public ContactTransferService(ContactService contactService, ContactRepository repository) {
+        this.contactService = contactService;
+        this.repository = repository;
+    }
+
+    /**
+     * Escreve todos os contatos no formato pedido, sem montar a lista em memória.
+     */
+    public void export(ContactFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        ContactCodec codec = format.getCodec();
+
+        codec.writeHeader(writer);
+        contactService.streamAll(contact -> {
+            try {
+                codec.write(writer, contact);
+            } catch (IOException e) {
+                // Cliente desconectou: interrompe a leitura e libera o cursor
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+    }
+
+    /**
+     * Lê o arquivo registro a registro e grava em lotes. Linhas inválidas não interrompem
+     * a importação; são reportadas com o número da linha no resultado.
+     */
+    public ContactImportResult importContacts(ContactFormat format, InputStream in) throws IOException {
+        ContactImportResult result = new ContactImportResult();
+        ContactRecordReader reader = format.getCodec()
+                .reader(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+
+        List<ContactRecord> batch = new ArrayList<>(BATCH_SIZE);
+        ContactRecord record;
+        while ((record = reader.next()) != null) {
+            String error = record.hasError() ? record.error() : validate(record.contact());
+            if (error != null) {
+                result.addError(record.line(), error);
+                continue;
+            }
+
+            batch.add(record);
+            if (batch.size() == BATCH_SIZE) {
+                saveBatch(batch, result);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            saveBatch(batch, result);
+        }
+        return result;
+    }
+
+    // Mesmas regras da entidade Contact, verificadas antes para não perder o lote inteiro
+    private String validate(ContactRequest contact) {
+        String name = contact.getName();
+        if (name == null || name.isBlank()) {
+            return "O nome não pode estar em branco";
+        }
+        if (name.length() < 2 || name.length() > 30) {
+            return "O nome deve ter entre 2 e 30 caracteres";
+        }
+        if (contact.getPhone() == null || contact.getPhone().isBlank()) {
+            return "O telefone não pode estar em branco";
+        }
+        return null;
+    }
+
+    private void saveBatch(List<ContactRecord> batch, ContactImportResult result) {
+        List<String> phones = batch.stream()
+                .map(record -> record.contact().getPhone())
+                .toList();
+        // Uma consulta por lote para respeitar o telefone único sem derrubar a transação
+        Set<String> taken = new HashSet<>(repository.findExistingPhones(phones));
+
+        List<ContactRecord> toCreate = new ArrayList<>(batch.size());
+        for (ContactRecord record : batch) {
+            if (taken.add(record.contact().getPhone())) {
+                toCreate.add(record);
+            } else {
+                result.addError(record.line(), "Telefone já cadastrado");
+            }
+        }
+        if (toCreate.isEmpty()) {
+            return;
+        }
+
+        try {
+            result.addImported(contactService.createAll(toCreate.stream().map(ContactRecord::contact).toList()));
+        } catch (DataIntegrityViolationException e) {
+            // Outro cliente gravou um desses telefones depois da consulta: o lote foi desfeito,
+            // então grava um a um para rejeitar só as linhas em conflito
+            log.debug("Lote de importação em conflito, gravando linha a linha", e);
+            saveOneByOne(toCreate, result);
+        }
+    }
+
+    private void saveOneByOne(List<ContactRecord> records, ContactImportResult result) {
+        for (ContactRecord record : records) {
+            try {
+                contactService.create(record.contact());
+                result.addImported(1);
+            } catch (DataIntegrityViolationException e) {
+                result.addError(record.line(), "Telefone já cadastrado");
+            }
+        }
+    }
+}
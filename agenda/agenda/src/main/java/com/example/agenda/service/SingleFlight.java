@@ -0,0 +1,121 @@
+package com.example.agenda.service;
+
+import com.example.agenda.deadline.DeadlineContext;
+import com.example.agenda.exception.DeadlineExceededException;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.sql.SQLTimeoutException;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Junta chamadas concorrentes para a mesma chave: só a primeira executa a consulta,
+ * as demais esperam por ela e recebem o mesmo resultado (ou a mesma exceção).
+ * Nada é guardado depois que a consulta termina, então a janela de compartilhamento
+ * é apenas o tempo da própria consulta.
+ * <p>
+ * Cada chamada que espera respeita o próprio prazo ({@link DeadlineContext}). Uma falha
+ * de prazo da primeira chamada não é repassada: quem ainda tem tempo faz a própria consulta.
+ */
+public class SingleFlight<K, V> {
+
+    private final String name;
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+
+    public SingleFlight(String name) {
+        this.name = name;
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        if (key == null) {
+            return loader.get();
+        }
+
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, call);
+        if (running != null) {
+            coalesced.increment();
+            return await(running, loader);
+        }
+
+        try {
+            V value = loader.get();
+            call.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    /**
+     * Depois de uma escrita, quem chegar não deve se juntar a uma consulta iniciada antes dela.
+     */
+    public void forget(K key) {
+        if (key != null) {
+            inFlight.remove(key);
+        }
+    }
+
+    public void forgetAll() {
+        inFlight.clear();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Quantas chamadas reaproveitaram uma consulta em andamento em vez de ir ao banco.
+     */
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    private V await(CompletableFuture<V> running, Supplier<V> loader) {
+        try {
+            OptionalLong remaining = DeadlineContext.remainingMillis();
+            return remaining.isPresent()
+                    ? running.get(remaining.getAsLong(), TimeUnit.MILLISECONDS)
+                    : running.get();
+        } catch (TimeoutException e) {
+            // Não é uma recusa antes de pegar conexão: tem contador próprio
+            throw DeadlineContext.coalescedWaitExpired();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Espera pela consulta em andamento interrompida", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (isDeadlineFailure(cause)) {
+                // O prazo que acabou foi o da primeira chamada, não o desta
+                return loader.get();
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private static boolean isDeadlineFailure(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DeadlineExceededException || cause instanceof QueryTimeoutException
+                    || cause instanceof SQLTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.agenda.snapshot;
+
+import java.nio.file.Path;
+
+/**
+ * Um snapshot comprimido da agenda. {@code version} é a última sequência do diário
+ * já refletida no arquivo: o cliente continua por {@code /contacts/journal?from=version+1}.
+ */
+public record ContactSnapshot(long version, Path file, long size) {
+
+    /**
+     * ETag forte de cada forma do corpo: o arquivo gzip e o JSON descomprimido não são
+     * iguais byte a byte, então não podem ter a mesma.
+     */
+    public String etag(boolean gzip) {
+        return "\"" + version + (gzip ? "-gz" : "") + "\"";
+    }
+}
@@ -0,0 +1,241 @@
+package com.example.agenda.snapshot;
+
+import com.example.agenda.event.ContactChangedEvent;
+import com.example.agenda.journal.ContactJournal;
+import com.example.agenda.service.ContactService;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gera snapshots da agenda inteira como JSON comprimido em gzip, um arquivo por versão.
+ * <p>
+ * Depois de uma escrita, a geração espera {@code agenda.snapshot.debounce-ms} sem novas
+ * alterações (no máximo {@code agenda.snapshot.max-delay-ms}) e roda numa thread própria.
+ * A versão é lida do diário <em>antes</em> de ler o banco: o arquivo contém tudo até ela
+ * e talvez algumas alterações seguintes, que o cliente reaplica sem efeito ao continuar pelo diário.
+ */
+@Component
+public class ContactSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(ContactSnapshotService.class);
+
+    private static final String FILE_PREFIX = "contacts-";
+    private static final String FILE_SUFFIX = ".json.gz";
+    // Arquivos antigos mantidos para downloads que ainda estão em andamento
+    private static final int KEEP = 3;
+
+    private final ContactService contactService;
+    private final ContactJournal journal;
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final long debounceNanos;
+    private final long maxDelayNanos;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "contact-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile ContactSnapshot current;
+
+    // Guardados pelo monitor: controle do debounce
+    private boolean pending;
+    private long firstChange;
+    private long lastChange;
+
+    @Autowired
+    public ContactSnapshotService(ContactService contactService, ContactJournal journal, ObjectMapper objectMapper,
+                                  @Value("${agenda.snapshot.dir:data/snapshots}") String directory,
+                                  @Value("${agenda.snapshot.debounce-ms:2000}") long debounceMs,
+                                  @Value("${agenda.snapshot.max-delay-ms:30000}") long maxDelayMs) {
+        this(contactService, journal, objectMapper, Path.of(directory), debounceMs, maxDelayMs);
+    }
+
+    public ContactSnapshotService(ContactService contactService, ContactJournal journal, ObjectMapper objectMapper,
+                                  Path directory, long debounceMs, long maxDelayMs) {
+        this.contactService = contactService;
+        this.journal = journal;
+        this.objectMapper = objectMapper;
+        this.directory = directory;
+        this.debounceNanos = TimeUnit.MILLISECONDS.toNanos(debounceMs);
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+    }
+
+    /**
+     * Reaproveita o último arquivo em disco se ainda estiver na versão do diário; senão, gera outro.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() throws IOException {
+        Files.createDirectories(directory);
+        // Restos de uma geração interrompida
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path leftover : files.filter(path -> path.getFileName().toString().endsWith(".tmp")).toList()) {
+                Files.deleteIfExists(leftover);
+            }
+        }
+        Optional<ContactSnapshot> latest = listSnapshots().stream().findFirst();
+        if (latest.isPresent() && latest.get().version() == journal.lastSequence()) {
+            current = latest.get();
+            return;
+        }
+        scheduler.execute(this::rebuildQuietly);
+    }
+
+    @PreDestroy
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Cada escrita confirmada adia a próxima geração até as alterações pararem.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onContactChanged(ContactChangedEvent event) {
+        requestRebuild();
+    }
+
+    public synchronized void requestRebuild() {
+        lastChange = System.nanoTime();
+        if (!pending) {
+            pending = true;
+            firstChange = lastChange;
+            scheduler.schedule(this::tick, debounceNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public Optional<ContactSnapshot> current() {
+        return Optional.ofNullable(current);
+    }
+
+    private void tick() {
+        synchronized (this) {
+            long now = System.nanoTime();
+            long quiet = now - lastChange;
+            long waiting = now - firstChange;
+            if (quiet < debounceNanos && waiting < maxDelayNanos) {
+                long delay = Math.min(debounceNanos - quiet, maxDelayNanos - waiting);
+                scheduler.schedule(this::tick, delay, TimeUnit.NANOSECONDS);
+                return;
+            }
+            // Alterações que chegarem durante a geração agendam a próxima
+            pending = false;
+        }
+        rebuildQuietly();
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (IOException | RuntimeException e) {
+            log.error("Falha ao gerar o snapshot da agenda", e);
+        }
+    }
+
+    /**
+     * Gera o snapshot na versão atual do diário. Chamado pela thread do snapshot (e pelos testes).
+     */
+    ContactSnapshot rebuild() throws IOException {
+        long version = journal.lastSequence();
+        ContactSnapshot existing = current;
+        if (existing != null && existing.version() == version) {
+            return existing;
+        }
+
+        Path temp = Files.createTempFile(directory, FILE_PREFIX, ".tmp");
+        try {
+            write(temp);
+            Path target = directory.resolve(fileName(version));
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            ContactSnapshot created = new ContactSnapshot(version, target, Files.size(target));
+            current = created;
+            deleteOlderThan(KEEP);
+            log.info("Snapshot da agenda gerado na versão {} ({} bytes)", version, created.size());
+            return created;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private void write(Path file) throws IOException {
+        try (OutputStream out = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(file)), 64 * 1024);
+             JsonGenerator generator = objectMapper.createGenerator(out, JsonEncoding.UTF8)) {
+            generator.writeStartArray();
+            contactService.streamAll(contact -> {
+                try {
+                    generator.writeObject(contact);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeEndArray();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void deleteOlderThan(int keep) throws IOException {
+        List<ContactSnapshot> snapshots = listSnapshots();
+        for (ContactSnapshot old : snapshots.subList(Math.min(keep, snapshots.size()), snapshots.size())) {
+            Files.deleteIfExists(old.file());
+        }
+    }
+
+    // Do mais novo para o mais antigo
+    private List<ContactSnapshot> listSnapshots() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(ContactSnapshotService::isSnapshot)
+                    .map(path -> new ContactSnapshot(versionOf(path), path, sizeOf(path)))
+                    .sorted(Comparator.comparingLong(ContactSnapshot::version).reversed())
+                    .toList();
+        }
+    }
+
+    private static String fileName(long version) {
+        return String.format("%s%020d%s", FILE_PREFIX, version, FILE_SUFFIX);
+    }
+
+    private static boolean isSnapshot(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX);
+    }
+
+    private static long versionOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length()));
+    }
+
+    private static long sizeOf(Path path) {
+        try {
+            return Files.size(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -1,7 +1,11 @@
 package com.example.agenda.controller;
 
+import com.example.agenda.deadline.DeadlineContext;
+import com.example.agenda.dto.ContactPageResponse;
 import com.example.agenda.dto.ContactRequest;
 import com.example.agenda.dto.ContactResponse;
+import com.example.agenda.exception.ContactNameNotFoundException;
+import com.example.agenda.exception.DeadlineExceededException;
 import com.example.agenda.exception.ResourceNotFoundException;
 import com.example.agenda.service.ContactService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -12,12 +16,18 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.CannotCreateTransactionException;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -83,6 +93,47 @@ public class ContactControllerTest {
         verify(contactService, times(1)).findAll();
     }
 
+    @Test
+    void findPage_ShouldReturnPageAndStatus200() throws Exception {
+        when(contactService.findPage(1, 2)).thenReturn(new ContactPageResponse(List.of(validResponse), 1, 2, 3));
+
+        mockMvc.perform(get(BASE_URL + "/page").param("page", "1").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.totalPages").value(2));
+    }
+
+    @Test
+    void findPage_ShouldReturnStatus400_WhenSizeTooLarge() throws Exception {
+        mockMvc.perform(get(BASE_URL + "/page").param("size", "501"))
+                .andExpect(status().isBadRequest());
+
+        verify(contactService, never()).findPage(anyInt(), anyInt());
+    }
+
+    @Test
+    void stream_ShouldWriteOneJsonLinePerContactAndStatus200() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<ContactResponse> consumer = invocation.getArgument(0);
+            consumer.accept(validResponse);
+            consumer.accept(validResponse);
+            return null;
+        }).when(contactService).streamAll(any());
+
+        MvcResult asyncResult = mockMvc.perform(get(BASE_URL + "/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        MvcResult result = mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn();
+
+        assertEquals(2, result.getResponse().getContentAsString().lines().count());
+        verify(contactService, times(1)).streamAll(any());
+        verify(contactService, never()).findAll();
+    }
+
     @Test
     void findById_ShouldReturnContactAndStatus200() throws Exception {
         when(contactService.findById(1L)).thenReturn(validResponse);
@@ -168,6 +219,19 @@ public class ContactControllerTest {
         verify(contactService, times(1)).findById(99L);
     }
 
+    @Test
+    void findById_ShouldReturnProblemDetail_WhenServiceThrowsResourceNotFound() throws Exception {
+        when(contactService.findById(99L)).thenThrow(new ResourceNotFoundException("Contato não encontrado"));
+
+        mockMvc.perform(get(BASE_URL + "/99"))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.status").value(404))
+                .andExpect(jsonPath("$.title").value("Recurso não encontrado"))
+                .andExpect(jsonPath("$.detail").value("Contato não encontrado"))
+                .andExpect(jsonPath("$.instance").value(BASE_URL + "/99"));
+    }
+
     @Test
     void findByName_ShouldReturnStatus404_WhenServiceThrowsResourceNotFound() throws Exception {
         final String searchName = "Inexistente";
@@ -183,6 +247,16 @@ public class ContactControllerTest {
         verify(contactService, times(1)).findByName(searchName);
     }
 
+    @Test
+    void findByName_ShouldPutSearchedNameInProblemDetail() throws Exception {
+        when(contactService.findByName("Inexistente")).thenThrow(new ContactNameNotFoundException("Inexistente"));
+
+        mockMvc.perform(get(BASE_URL + "/search/name/Inexistente"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.title").value("Recurso não encontrado"))
+                .andExpect(jsonPath("$.detail").value("Contato com nome \"Inexistente\" não encontrado"));
+    }
+
     @Test
     void findByPhone_ShouldReturnStatus404_WhenServiceThrowsResourceNotFound() throws Exception {
         final String searchPhone = "000000000";
@@ -225,4 +299,40 @@ public class ContactControllerTest {
 
         verify(contactService, times(1)).delete(99L);
     }
-}
\ No newline at end of file
+
+    // --------------------------------------------------------------------------------
+    // --- 3. Prazos (Status 504 Gateway Timeout) ---
+
+    @Test
+    void findById_ShouldRunWithDeadline() throws Exception {
+        when(contactService.findById(1L)).thenAnswer(invocation -> {
+            assertTrue(DeadlineContext.remainingMillis().isPresent());
+            return validResponse;
+        });
+
+        mockMvc.perform(get(BASE_URL + "/1"))
+                .andExpect(status().isOk());
+
+        assertTrue(DeadlineContext.remainingMillis().isEmpty());
+    }
+
+    @Test
+    void findByPhone_ShouldReturnStatus504_WhenDeadlineExceeded() throws Exception {
+        when(contactService.findByPhone("11999")).thenThrow(DeadlineExceededException.INSTANCE);
+
+        mockMvc.perform(get(BASE_URL + "/search/phone/11999"))
+                .andExpect(status().isGatewayTimeout());
+    }
+
+    @Test
+    void update_ShouldReturnStatus504_WhenDeadlineExceededBeforeTransaction() throws Exception {
+        when(contactService.update(eq(1L), any(ContactRequest.class)))
+                .thenThrow(new CannotCreateTransactionException("Could not open JPA EntityManager for transaction",
+                        DeadlineExceededException.INSTANCE));
+
+        mockMvc.perform(put(BASE_URL + "/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validRequest)))
+                .andExpect(status().isGatewayTimeout());
+    }
+}
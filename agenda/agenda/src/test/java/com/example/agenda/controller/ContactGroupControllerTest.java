@@ -0,0 +1,141 @@
+package com.example.agenda.controller;
+
+import com.example.agenda.dto.ContactGroupRequest;
+import com.example.agenda.dto.ContactGroupResponse;
+import com.example.agenda.dto.ContactPageResponse;
+import com.example.agenda.dto.ContactResponse;
+import com.example.agenda.exception.ResourceNotFoundException;
+import com.example.agenda.service.ContactGroupService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ContactGroupController.class)
+public class ContactGroupControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private ContactGroupService groupService;
+
+    private final String BASE_URL = "/groups";
+
+    @Test
+    void create_ShouldReturnGroupAndStatus200() throws Exception {
+        ContactGroupRequest request = new ContactGroupRequest();
+        request.setName("clientes");
+        when(groupService.create(any(ContactGroupRequest.class))).thenReturn(new ContactGroupResponse(1L, "clientes", 0));
+
+        mockMvc.perform(post(BASE_URL)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("clientes"));
+    }
+
+    @Test
+    void create_ShouldReturnStatus400_WhenNameIsBlank() throws Exception {
+        mockMvc.perform(post(BASE_URL)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\" \"}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(groupService);
+    }
+
+    @Test
+    void findAll_ShouldReturnGroupsAndStatus200() throws Exception {
+        when(groupService.findAll()).thenReturn(List.of(new ContactGroupResponse(1L, "clientes", 3)));
+
+        mockMvc.perform(get(BASE_URL))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].size").value(3));
+    }
+
+    @Test
+    void delete_ShouldReturnStatus404_WhenServiceThrowsResourceNotFound() throws Exception {
+        doThrow(new ResourceNotFoundException("Grupo não encontrado")).when(groupService).delete("inexistente");
+
+        mockMvc.perform(delete(BASE_URL + "/inexistente"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void addContact_ShouldReturnGroupAndStatus200() throws Exception {
+        when(groupService.addContact("clientes", 1L)).thenReturn(new ContactGroupResponse(1L, "clientes", 1));
+
+        mockMvc.perform(put(BASE_URL + "/clientes/contacts/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size").value(1));
+    }
+
+    @Test
+    void removeContact_ShouldReturnGroupAndStatus200() throws Exception {
+        when(groupService.removeContact("clientes", 1L)).thenReturn(new ContactGroupResponse(1L, "clientes", 0));
+
+        mockMvc.perform(delete(BASE_URL + "/clientes/contacts/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size").value(0));
+    }
+
+    @Test
+    void removeContact_ShouldReturnStatus400_WhenIdIsOutOfIndexRange() throws Exception {
+        mockMvc.perform(delete(BASE_URL + "/clientes/contacts/3000000000"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(groupService);
+    }
+
+    @Test
+    void filter_ShouldReturnPageAndStatus200() throws Exception {
+        ContactResponse contact = new ContactResponse();
+        contact.setId(3L);
+        when(groupService.filter(List.of("clientes", "fornecedores"), List.of(), List.of("familia"), 0, 20))
+                .thenReturn(new ContactPageResponse(List.of(contact), 0, 20, 1));
+
+        mockMvc.perform(get(BASE_URL + "/contacts")
+                        .param("all", "clientes,fornecedores")
+                        .param("none", "familia"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(3))
+                .andExpect(jsonPath("$.totalElements").value(1));
+    }
+
+    @Test
+    void filter_ShouldReturnStatus400_WhenNoIncludeGroupIsGiven() throws Exception {
+        mockMvc.perform(get(BASE_URL + "/contacts").param("none", "familia"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(groupService);
+    }
+
+    @Test
+    void filter_ShouldReturnStatus400_WhenPageSizeIsTooLarge() throws Exception {
+        mockMvc.perform(get(BASE_URL + "/contacts").param("any", "clientes").param("size", "10000"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void count_ShouldReturnNumberAndStatus200() throws Exception {
+        when(groupService.count(List.of("clientes"), List.of(), List.of())).thenReturn(42L);
+
+        mockMvc.perform(get(BASE_URL + "/contacts/count").param("all", "clientes"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("42"));
+    }
+}
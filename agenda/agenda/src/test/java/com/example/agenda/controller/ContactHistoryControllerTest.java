@@ -0,0 +1,60 @@
+package com.example.agenda.controller;
+
+import com.example.agenda.dto.ContactResponse;
+import com.example.agenda.event.ContactChangedEvent.ChangeType;
+import com.example.agenda.journal.ContactChange;
+import com.example.agenda.journal.ContactJournal;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ContactHistoryController.class)
+public class ContactHistoryControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ContactJournal journal;
+
+    private final String BASE_URL = "/contacts";
+
+    private ContactChange change(long sequence, ChangeType type) {
+        ContactResponse after = new ContactResponse();
+        after.setId(1L);
+        after.setName("Ana");
+        return new ContactChange(sequence, Instant.now(), type, 1L, null, after);
+    }
+
+    @Test
+    void history_ShouldReturnChangesAndStatus200() throws Exception {
+        when(journal.history(1L)).thenReturn(List.of(change(1, ChangeType.CREATED), change(5, ChangeType.UPDATED)));
+
+        mockMvc.perform(get(BASE_URL + "/1/history"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].sequence").value(5))
+                .andExpect(jsonPath("$[1].type").value("UPDATED"))
+                .andExpect(jsonPath("$[1].after.name").value("Ana"));
+    }
+
+    @Test
+    void journal_ShouldReadFromSequenceWithCappedLimit() throws Exception {
+        when(journal.read(10L, 10_000)).thenReturn(List.of(change(10, ChangeType.CREATED)));
+
+        mockMvc.perform(get(BASE_URL + "/journal").param("from", "10").param("limit", "999999"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].sequence").value(10));
+
+        verify(journal, times(1)).read(10L, 10_000);
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.agenda.controller;
+
+import com.example.agenda.snapshot.ContactSnapshot;
+import com.example.agenda.snapshot.ContactSnapshotService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ContactSnapshotController.class)
+public class ContactSnapshotControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ContactSnapshotService snapshotService;
+
+    @TempDir
+    Path directory;
+
+    private final String BASE_URL = "/contacts/snapshot";
+
+    private ContactSnapshot snapshot(long version, byte[] content) throws Exception {
+        Path file = Files.write(directory.resolve("snapshot.json.gz"), content);
+        return new ContactSnapshot(version, file, content.length);
+    }
+
+    private byte[] gzip(String text) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+
+    @Test
+    void snapshot_ShouldCopyFileWhenSendfileIsNotAvailable() throws Exception {
+        byte[] content = {1, 2, 3, 4, 5};
+        when(snapshotService.current()).thenReturn(Optional.of(snapshot(12, content)));
+
+        mockMvc.perform(get(BASE_URL).header("Accept-Encoding", "deflate, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"12-gz\""))
+                .andExpect(header().string("X-Snapshot-Version", "12"))
+                .andExpect(header().string("Vary", "Accept-Encoding"))
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(content().bytes(content));
+    }
+
+    @Test
+    void snapshot_ShouldDecompressWhenClientDoesNotAcceptGzip() throws Exception {
+        String json = "[{\"id\":1,\"name\":\"Ana\"}]";
+        when(snapshotService.current()).thenReturn(Optional.of(snapshot(12, gzip(json))));
+
+        mockMvc.perform(get(BASE_URL).header("Accept-Encoding", "gzip;q=0, br"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"12\""))
+                .andExpect(header().string("Vary", "Accept-Encoding"))
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(content().string(json));
+    }
+
+    @Test
+    void acceptsGzip_ShouldHonourExplicitEntryBeforeWildcard() {
+        assertTrue(ContactSnapshotController.acceptsGzip("gzip"));
+        assertTrue(ContactSnapshotController.acceptsGzip("br;q=1.0, *;q=0.1"));
+        assertFalse(ContactSnapshotController.acceptsGzip("*, gzip;q=0"));
+        assertFalse(ContactSnapshotController.acceptsGzip("identity"));
+        assertFalse(ContactSnapshotController.acceptsGzip(null));
+    }
+
+    @Test
+    void snapshot_ShouldHandOffToSendfileWhenSupported() throws Exception {
+        ContactSnapshot snapshot = snapshot(12, new byte[]{1, 2, 3});
+        when(snapshotService.current()).thenReturn(Optional.of(snapshot));
+
+        mockMvc.perform(get(BASE_URL).header("Accept-Encoding", "gzip")
+                        .requestAttr(ContactSnapshotController.SENDFILE_SUPPORT, Boolean.TRUE))
+                .andExpect(status().isOk())
+                .andExpect(request().attribute(ContactSnapshotController.SENDFILE_FILENAME,
+                        snapshot.file().toAbsolutePath().toString()))
+                .andExpect(request().attribute(ContactSnapshotController.SENDFILE_END, 3L))
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void snapshot_ShouldReturn304WhenClientHasVersion() throws Exception {
+        when(snapshotService.current()).thenReturn(Optional.of(snapshot(12, new byte[]{1})));
+
+        mockMvc.perform(get(BASE_URL).header("If-None-Match", "\"11\", \"12\""))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get(BASE_URL).header("If-None-Match", "*"))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void snapshot_ShouldNotMatchETagOfTheOtherEncoding() throws Exception {
+        when(snapshotService.current()).thenReturn(Optional.of(snapshot(12, gzip("[]"))));
+
+        // Quem guardou o JSON descomprimido não pode reaproveitá-lo como se fosse o gzip
+        mockMvc.perform(get(BASE_URL).header("Accept-Encoding", "gzip").header("If-None-Match", "\"12\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"12-gz\""));
+        mockMvc.perform(get(BASE_URL).header("Accept-Encoding", "gzip").header("If-None-Match", "\"12-gz\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void snapshot_ShouldNotMatchETagByPrefix() throws Exception {
+        when(snapshotService.current()).thenReturn(Optional.of(snapshot(12, new byte[]{1})));
+
+        mockMvc.perform(get(BASE_URL).header("Accept-Encoding", "gzip").header("If-None-Match", "\"123\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void snapshot_ShouldReturn503BeforeFirstSnapshot() throws Exception {
+        when(snapshotService.current()).thenReturn(Optional.empty());
+
+        mockMvc.perform(get(BASE_URL))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().exists("Retry-After"));
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.agenda.controller;
+
+import com.example.agenda.dto.ContactStatsResponse;
+import com.example.agenda.dto.ContactStatsResponse.DailyCount;
+import com.example.agenda.dto.ContactStatsResponse.DomainCount;
+import com.example.agenda.service.ContactStatsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ContactStatsController.class)
+public class ContactStatsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ContactStatsService statsService;
+
+    @Test
+    void stats_ShouldReturnStatsAndStatus200() throws Exception {
+        ContactStatsResponse stats = new ContactStatsResponse();
+        stats.setTotalContacts(42);
+        stats.setMissingEmail(5);
+        stats.setMissingPhone(1);
+        stats.setCreatedPerDay(List.of(new DailyCount(LocalDate.of(2025, 3, 10), 4)));
+        stats.setTopEmailDomains(List.of(new DomainCount("empresa.com", 12)));
+        when(statsService.getStats()).thenReturn(stats);
+
+        mockMvc.perform(get("/contacts/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalContacts").value(42))
+                .andExpect(jsonPath("$.missingEmail").value(5))
+                .andExpect(jsonPath("$.createdPerDay[0].date").value("2025-03-10"))
+                .andExpect(jsonPath("$.topEmailDomains[0].domain").value("empresa.com"))
+                .andExpect(jsonPath("$.topEmailDomains[0].count").value(12));
+
+        verify(statsService, times(1)).getStats();
+    }
+}
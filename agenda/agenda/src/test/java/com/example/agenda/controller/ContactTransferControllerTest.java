@@ -0,0 +1,81 @@
+package com.example.agenda.controller;
+
+import com.example.agenda.dto.ContactImportResult;
+import com.example.agenda.format.ContactFormat;
+import com.example.agenda.service.ContactTransferService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ContactTransferController.class)
+public class ContactTransferControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ContactTransferService transferService;
+
+    private final String BASE_URL = "/contacts";
+
+    @Test
+    void export_ShouldStreamFileAsAttachmentAndStatus200() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            out.write("id,name\r\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(transferService).export(eq(ContactFormat.VCARD), any(OutputStream.class));
+
+        MvcResult asyncResult = mockMvc.perform(get(BASE_URL + "/export").param("format", "vcard"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/vcard"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"contatos.vcf\""))
+                .andExpect(content().string("id,name\r\n"));
+    }
+
+    @Test
+    void export_ShouldReturnStatus400_WhenFormatIsUnknown() throws Exception {
+        mockMvc.perform(get(BASE_URL + "/export").param("format", "xlsx"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(transferService);
+    }
+
+    @Test
+    void importContacts_ShouldReturnSummaryAndStatus200() throws Exception {
+        ContactImportResult result = new ContactImportResult();
+        result.addImported(1);
+        result.addError(3, "Telefone já cadastrado");
+        when(transferService.importContacts(eq(ContactFormat.CSV), any())).thenReturn(result);
+
+        MockMultipartFile file = new MockMultipartFile("file", "contatos.csv", "text/csv",
+                "name,phone\nAna,111\nBia,111\n".getBytes(StandardCharsets.UTF_8));
+
+        mockMvc.perform(multipart(BASE_URL + "/import").file(file))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(3))
+                .andExpect(jsonPath("$.errors[0].message").value("Telefone já cadastrado"));
+
+        verify(transferService, times(1)).importContacts(eq(ContactFormat.CSV), any());
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.agenda.deadline;
+
+import com.example.agenda.exception.DeadlineExceededException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DeadlineDataSourceTest {
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    @AfterEach
+    void tearDown() {
+        DeadlineContext.clear();
+    }
+
+    @Test
+    void getConnection_ShouldDelegateWithoutDeadline() throws Exception {
+        when(target.getConnection()).thenReturn(connection);
+
+        assertSame(connection, new DeadlineDataSource(target).getConnection());
+    }
+
+    @Test
+    void getConnection_ShouldDelegateWhileDeadlineIsOpen() throws Exception {
+        when(target.getConnection()).thenReturn(connection);
+        DeadlineContext.start(60_000);
+
+        assertSame(connection, new DeadlineDataSource(target).getConnection());
+    }
+
+    @Test
+    void getConnection_ShouldFailFastWhenDeadlinePassed() throws Exception {
+        DeadlineContext.start(-1);
+        long rejected = DeadlineContext.getRejectedCount();
+
+        assertThrows(DeadlineExceededException.class, () -> new DeadlineDataSource(target).getConnection());
+
+        verify(target, never()).getConnection();
+        assertEquals(rejected + 1, DeadlineContext.getRejectedCount());
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.agenda.deadline;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DeadlineQueryListenerTest {
+
+    @Mock
+    private Statement statement;
+
+    private final DeadlineQueryListener listener = new DeadlineQueryListener();
+
+    @AfterEach
+    void tearDown() {
+        DeadlineContext.clear();
+    }
+
+    private ExecutionInfo execution() {
+        ExecutionInfo info = new ExecutionInfo();
+        info.setStatement(statement);
+        return info;
+    }
+
+    @Test
+    void beforeQuery_ShouldLeaveStatementAloneWithoutDeadline() {
+        listener.beforeQuery(execution(), List.of());
+
+        verifyNoInteractions(statement);
+    }
+
+    @Test
+    void beforeQuery_ShouldSetTimeoutRoundedUpToSeconds() throws Exception {
+        DeadlineContext.start(1_500);
+
+        listener.beforeQuery(execution(), List.of());
+
+        verify(statement).setQueryTimeout(2);
+    }
+
+    @Test
+    void beforeQuery_ShouldKeepShorterTimeoutAlreadySet() throws Exception {
+        when(statement.getQueryTimeout()).thenReturn(1);
+        DeadlineContext.start(30_000);
+
+        listener.beforeQuery(execution(), List.of());
+
+        verify(statement, never()).setQueryTimeout(anyInt());
+    }
+
+    @Test
+    void afterQuery_ShouldCountStatementTimeouts() {
+        ExecutionInfo info = execution();
+        info.setThrowable(new SQLTimeoutException("cancelado"));
+        long timedOut = DeadlineContext.getTimedOutCount();
+
+        listener.afterQuery(info, List.of());
+
+        assertEquals(timedOut + 1, DeadlineContext.getTimedOutCount());
+    }
+}
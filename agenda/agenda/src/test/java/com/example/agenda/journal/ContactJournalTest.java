@@ -0,0 +1,200 @@
+package com.example.agenda.journal;
+
+import com.example.agenda.dto.ContactResponse;
+import com.example.agenda.event.ContactChangedEvent;
+import com.example.agenda.event.ContactChangedEvent.ChangeType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ContactJournalTest {
+
+    // Segmentos pequenos para forçar a troca de arquivo nos testes
+    private static final int SEGMENT_SIZE = 1024;
+
+    @TempDir
+    Path directory;
+
+    private ContactJournal journal;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        journal = open();
+    }
+
+    @AfterEach
+    void tearDown() {
+        journal.close();
+    }
+
+    private ContactJournal open() throws IOException {
+        ContactJournal opened = new ContactJournal(directory, SEGMENT_SIZE, 10, Duration.ofDays(1));
+        opened.open();
+        return opened;
+    }
+
+    private ContactResponse contact(long id, String name) {
+        return new ContactResponse(id, name, name.toLowerCase() + "@example.com", "11" + id, null,
+                LocalDateTime.of(2024, 1, 2, 3, 4, 5));
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    @Test
+    void append_ShouldAssignIncreasingSequences() {
+        assertEquals(0, journal.lastSequence());
+
+        assertEquals(1, journal.append(ChangeType.CREATED, 1L, null, contact(1, "Ana")));
+        assertEquals(2, journal.append(ChangeType.CREATED, 2L, null, contact(2, "Bia")));
+        assertEquals(2, journal.lastSequence());
+    }
+
+    @Test
+    void history_ShouldReturnBeforeAndAfterValuesOfOneContact() {
+        journal.append(ChangeType.CREATED, 1L, null, contact(1, "Ana"));
+        journal.append(ChangeType.CREATED, 2L, null, contact(2, "Bia"));
+        journal.append(ChangeType.UPDATED, 1L, contact(1, "Ana"), contact(1, "Ana Maria"));
+        journal.append(ChangeType.DELETED, 1L, contact(1, "Ana Maria"), null);
+
+        List<ContactChange> history = journal.history(1L);
+
+        assertEquals(List.of(1L, 3L, 4L), history.stream().map(ContactChange::sequence).toList());
+        ContactChange update = history.get(1);
+        assertEquals(ChangeType.UPDATED, update.type());
+        assertEquals("Ana", update.before().getName());
+        assertEquals("Ana Maria", update.after().getName());
+        assertEquals(1L, update.after().getId());
+        assertNull(update.after().getNotes());
+        assertEquals(LocalDateTime.of(2024, 1, 2, 3, 4, 5), update.after().getCreatedAt());
+        assertNull(history.get(2).after());
+    }
+
+    @Test
+    void replay_ShouldStartAtSequenceAcrossSegments() throws IOException {
+        for (long id = 1; id <= 40; id++) {
+            journal.append(ChangeType.CREATED, id, null, contact(id, "Contato " + id));
+        }
+        assertTrue(segmentCount() > 1);
+
+        List<Long> replayed = new ArrayList<>();
+        journal.replay(25, change -> replayed.add(change.sequence()));
+
+        assertEquals(16, replayed.size());
+        assertEquals(25L, replayed.get(0));
+        assertEquals(40L, replayed.get(replayed.size() - 1));
+        assertEquals(List.of(10L, 11L, 12L), journal.read(10, 3).stream().map(ContactChange::sequence).toList());
+    }
+
+    @Test
+    void open_ShouldContinueAfterLastRecord() throws IOException {
+        journal.append(ChangeType.CREATED, 1L, null, contact(1, "Ana"));
+        journal.append(ChangeType.CREATED, 2L, null, contact(2, "Bia"));
+        journal.close();
+
+        journal = open();
+
+        assertEquals(2, journal.lastSequence());
+        assertEquals(3, journal.append(ChangeType.DELETED, 2L, contact(2, "Bia"), null));
+        assertEquals(2, journal.history(2L).size());
+    }
+
+    @Test
+    void open_ShouldDiscardTornRecordAtTheEnd() throws IOException {
+        journal.append(ChangeType.CREATED, 1L, null, contact(1, "Ana"));
+        journal.append(ChangeType.CREATED, 2L, null, contact(2, "Bia"));
+        journal.close();
+
+        // Corrompe um byte do último registro, como em uma gravação interrompida
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            int firstLength = file.readInt();
+            // Início do payload do segundo registro + um byte dentro do id do contato
+            long secondPayload = 8L + firstLength + 8;
+            file.seek(secondPayload + 20);
+            file.write(0x7F);
+        }
+
+        journal = open();
+
+        assertEquals(1, journal.lastSequence());
+        assertEquals(2, journal.append(ChangeType.CREATED, 3L, null, contact(3, "Caio")));
+        assertEquals(List.of(1L, 2L), journal.read(1, 10).stream().map(ContactChange::sequence).toList());
+        assertEquals(3L, journal.read(2, 1).get(0).contactId());
+    }
+
+    @Test
+    void compact_ShouldDeleteClosedSegmentsOlderThanCutoff() throws IOException {
+        for (long id = 1; id <= 40; id++) {
+            journal.append(ChangeType.CREATED, id, null, contact(id, "Contato " + id));
+        }
+        long before = segmentCount();
+        assertTrue(before > 1);
+
+        assertEquals(0, journal.compact(Instant.now().minus(Duration.ofDays(1))));
+        int removed = journal.compact(Instant.now().plusSeconds(60));
+
+        assertEquals(before - 1, removed);
+        assertEquals(1, segmentCount());
+        // O segmento ativo continua legível e a sequência não volta
+        assertEquals(41, journal.append(ChangeType.CREATED, 41L, null, contact(41, "Contato 41")));
+        assertFalse(journal.read(1, 100).isEmpty());
+    }
+
+    @Test
+    void history_ShouldFindRecordsAcrossSegmentsAfterReopenAndCompaction() throws IOException {
+        for (long id = 1; id <= 40; id++) {
+            journal.append(ChangeType.CREATED, id, null, contact(id, "Contato " + id));
+            if (id % 10 == 0) {
+                journal.append(ChangeType.UPDATED, 7L, contact(7, "Contato 7"), contact(7, "Sete " + id));
+            }
+        }
+        assertTrue(segmentCount() > 2);
+        journal.close();
+
+        // O índice por contato é remontado a partir dos segmentos na abertura
+        journal = open();
+        long next = journal.append(ChangeType.DELETED, 7L, contact(7, "Sete 40"), null);
+
+        List<ContactChange> history = journal.history(7L);
+        assertEquals(6, history.size());
+        assertEquals(ChangeType.CREATED, history.get(0).type());
+        assertEquals("Sete 20", history.get(2).after().getName());
+        assertEquals(next, history.get(5).sequence());
+        assertTrue(journal.history(99L).isEmpty());
+
+        // Registros de segmentos apagados saem do índice; os do segmento ativo ficam
+        journal.compact(Instant.now().plusSeconds(60));
+        List<ContactChange> compacted = journal.history(7L);
+        assertTrue(compacted.size() < history.size());
+        assertNotEquals(ChangeType.CREATED, compacted.get(0).type());
+        assertEquals(next, compacted.get(compacted.size() - 1).sequence());
+    }
+
+    @Test
+    void onContactChanged_ShouldAppendEvent() {
+        journal.onContactChanged(new ContactChangedEvent(ChangeType.CREATED, 7L, null, contact(7, "Gil")));
+
+        assertEquals(1, journal.history(7L).size());
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.agenda.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ContactGroupIndexTest {
+
+    private ContactGroupIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ContactGroupIndex();
+        index.replaceAll(Map.of(
+                "clientes", RoaringBitmap.bitmapOf(1, 2, 3, 4),
+                "fornecedores", RoaringBitmap.bitmapOf(3, 4, 5),
+                "familia", RoaringBitmap.bitmapOf(4, 6)));
+    }
+
+    private List<Integer> ids(RoaringBitmap bitmap) {
+        return bitmap.stream().boxed().toList();
+    }
+
+    @Test
+    void filter_ShouldCombineAllAnyAndNone() {
+        assertEquals(List.of(3), ids(index.filter(List.of("clientes", "fornecedores"), List.of(), List.of("familia"))));
+        assertEquals(List.of(1, 2, 3, 5), ids(index.filter(List.of(), List.of("clientes", "fornecedores"), List.of("familia"))));
+        assertEquals(List.of(3, 4), ids(index.filter(List.of("clientes"), List.of("fornecedores", "inexistente"), List.of())));
+    }
+
+    @Test
+    void filter_ShouldTreatUnknownGroupAsEmpty() {
+        assertTrue(index.filter(List.of("clientes", "inexistente"), List.of(), List.of()).isEmpty());
+        assertEquals(4, index.filter(List.of("clientes"), List.of(), List.of("inexistente")).getCardinality());
+    }
+
+    @Test
+    void filter_ShouldReturnEmpty_WhenNoIncludeGroupIsGiven() {
+        assertTrue(index.filter(List.of(), List.of(), List.of("familia")).isEmpty());
+    }
+
+    @Test
+    void filter_ShouldNotChangeIndexedBitmaps() {
+        index.filter(List.of("clientes"), List.of(), List.of("fornecedores")).add(99);
+
+        assertEquals(4, index.size("clientes"));
+        assertFalse(index.contains("clientes", 99));
+    }
+
+    @Test
+    void addAndRemove_ShouldUpdateMembership() {
+        index.add("familia", 7);
+        index.remove("clientes", 1);
+
+        assertTrue(index.contains("familia", 7));
+        assertFalse(index.contains("clientes", 1));
+        assertEquals(3, index.size("familia"));
+    }
+
+    @Test
+    void removeContact_ShouldRemoveFromEveryGroup() {
+        index.removeContact(4);
+
+        assertFalse(index.contains("clientes", 4));
+        assertFalse(index.contains("fornecedores", 4));
+        assertFalse(index.contains("familia", 4));
+    }
+
+    @Test
+    void removeGroup_ShouldForgetMembers() {
+        index.removeGroup("familia");
+
+        assertEquals(0, index.size("familia"));
+        assertTrue(index.filter(List.of("familia"), List.of(), List.of()).isEmpty());
+    }
+
+    @Test
+    void idsOutOfRange_ShouldBeTreatedAsNonMembers() {
+        long tooLarge = Integer.MAX_VALUE + 1L;
+
+        assertFalse(ContactGroupIndex.isIndexable(tooLarge));
+        assertFalse(index.contains("clientes", tooLarge));
+        index.remove("clientes", tooLarge);
+        index.removeContact(tooLarge);
+        assertEquals(4, index.size("clientes"));
+    }
+}
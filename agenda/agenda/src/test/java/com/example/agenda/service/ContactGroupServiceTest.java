@@ -0,0 +1,259 @@
+package com.example.agenda.service;
+
+import com.example.agenda.dto.ContactGroupRequest;
+import com.example.agenda.dto.ContactGroupResponse;
+import com.example.agenda.dto.ContactPageResponse;
+import com.example.agenda.dto.ContactResponse;
+import com.example.agenda.event.ContactChangedEvent;
+import com.example.agenda.event.ContactChangedEvent.ChangeType;
+import com.example.agenda.exception.ResourceNotFoundException;
+import com.example.agenda.model.Contact;
+import com.example.agenda.model.ContactGroup;
+import com.example.agenda.repository.ContactGroupRepository;
+import com.example.agenda.repository.ContactRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ContactGroupServiceTest {
+
+    @Mock
+    private ContactGroupRepository groupRepository;
+
+    @Mock
+    private ContactRepository contactRepository;
+
+    // Índice real: é ele que responde aos filtros
+    private ContactGroupIndex index;
+
+    private ContactGroupService groupService;
+
+    private ContactGroup clientes;
+
+    @BeforeEach
+    void setUp() {
+        index = new ContactGroupIndex();
+        groupService = new ContactGroupService(groupRepository, contactRepository, index);
+
+        clientes = new ContactGroup();
+        clientes.setId(10L);
+        clientes.setName("clientes");
+    }
+
+    private Contact contact(long id) {
+        Contact contact = new Contact();
+        contact.setId(id);
+        contact.setName("Contato " + id);
+        contact.setPhone(String.valueOf(id));
+        return contact;
+    }
+
+    @Test
+    void loadIndex_ShouldBuildBitmapsFromJoinTable() {
+        ContactGroup vazio = new ContactGroup();
+        vazio.setName("vazio");
+        when(groupRepository.findAll()).thenReturn(List.of(clientes, vazio));
+        when(groupRepository.streamMemberships()).thenReturn(Stream.of(
+                new Object[]{"clientes", 1L}, new Object[]{"clientes", 2L}));
+
+        groupService.loadIndex();
+
+        assertEquals(2, index.size("clientes"));
+        assertEquals(0, index.size("vazio"));
+    }
+
+    @Test
+    void create_ShouldReturnExistingGroup_WhenNameIsTaken() {
+        when(groupRepository.findByName("clientes")).thenReturn(Optional.of(clientes));
+        ContactGroupRequest request = new ContactGroupRequest();
+        request.setName("clientes");
+
+        ContactGroupResponse response = groupService.create(request);
+
+        assertEquals(10L, response.getId());
+        verify(groupRepository, never()).save(any());
+    }
+
+    @Test
+    void create_ShouldSaveNewGroup() {
+        when(groupRepository.findByName("familia")).thenReturn(Optional.empty());
+        when(groupRepository.save(any(ContactGroup.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        ContactGroupRequest request = new ContactGroupRequest();
+        request.setName("familia");
+
+        ContactGroupResponse response = groupService.create(request);
+
+        assertEquals("familia", response.getName());
+        assertEquals(0, response.getSize());
+    }
+
+    @Test
+    void addContact_ShouldInsertOnlyOnce() {
+        when(groupRepository.findByName("clientes")).thenReturn(Optional.of(clientes));
+        when(contactRepository.existsById(1L)).thenReturn(true);
+
+        groupService.addContact("clientes", 1L);
+        ContactGroupResponse response = groupService.addContact("clientes", 1L);
+
+        assertEquals(1, response.getSize());
+        verify(groupRepository, times(1)).addMember(10L, 1L);
+    }
+
+    @Test
+    void addContact_ShouldBeIdempotent_WhenConcurrentAddWinsTheInsert() {
+        when(groupRepository.findByName("clientes")).thenReturn(Optional.of(clientes));
+        when(contactRepository.existsById(1L)).thenReturn(true);
+        // A outra requisição inseriu a ligação entre a consulta ao índice e este insert
+        when(groupRepository.addMember(10L, 1L)).thenThrow(new DataIntegrityViolationException("PRIMARY KEY"));
+
+        ContactGroupResponse response = groupService.addContact("clientes", 1L);
+
+        assertEquals(1, response.getSize());
+        assertTrue(index.contains("clientes", 1L));
+    }
+
+    @Test
+    void addContact_ShouldUndoInsert_WhenContactIsDeletedDuringInsert() {
+        when(groupRepository.findByName("clientes")).thenReturn(Optional.of(clientes));
+        // Sem chave estrangeira o insert passa; só a segunda consulta vê a exclusão
+        when(contactRepository.existsById(1L)).thenReturn(true, false);
+
+        assertThrows(ResourceNotFoundException.class, () -> groupService.addContact("clientes", 1L));
+        verify(groupRepository).addMember(10L, 1L);
+        verify(groupRepository).removeMember(10L, 1L);
+        assertFalse(index.contains("clientes", 1L));
+    }
+
+    @Test
+    void addContact_ShouldThrowException_WhenContactDoesNotExist() {
+        when(groupRepository.findByName("clientes")).thenReturn(Optional.of(clientes));
+        when(contactRepository.existsById(99L)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> groupService.addContact("clientes", 99L));
+        verify(groupRepository, never()).addMember(anyLong(), anyLong());
+    }
+
+    @Test
+    void removeContact_ShouldThrowException_WhenGroupDoesNotExist() {
+        when(groupRepository.findByName("inexistente")).thenReturn(Optional.empty());
+
+        RuntimeException exception = assertThrows(ResourceNotFoundException.class,
+                () -> groupService.removeContact("inexistente", 1L));
+        assertEquals("Grupo não encontrado", exception.getMessage());
+    }
+
+    @Test
+    void removeContact_ShouldDeleteLinkAndUpdateIndex() {
+        index.add("clientes", 1L);
+        when(groupRepository.findByName("clientes")).thenReturn(Optional.of(clientes));
+
+        ContactGroupResponse response = groupService.removeContact("clientes", 1L);
+
+        assertEquals(0, response.getSize());
+        verify(groupRepository, times(1)).removeMember(10L, 1L);
+    }
+
+    @Test
+    void delete_ShouldRemoveGroupFromIndex() {
+        index.add("clientes", 1L);
+        when(groupRepository.findByName("clientes")).thenReturn(Optional.of(clientes));
+
+        groupService.delete("clientes");
+
+        verify(groupRepository, times(1)).delete(clientes);
+        assertEquals(0, index.size("clientes"));
+    }
+
+    @Test
+    void filter_ShouldLoadOnlyTheRequestedPage() {
+        for (long id = 1; id <= 5; id++) {
+            index.add("clientes", id);
+        }
+        index.add("familia", 2L);
+        // O repositório pode devolver fora de ordem
+        when(contactRepository.findAllById(List.of(4L, 5L))).thenReturn(List.of(contact(5), contact(4)));
+
+        // Filtro = {1, 3, 4, 5}; a segunda página de tamanho 2 é {4, 5}
+        ContactPageResponse page = groupService.filter(List.of("clientes"), List.of(), List.of("familia"), 1, 2);
+
+        assertEquals(List.of(4L, 5L), page.getContent().stream().map(ContactResponse::getId).toList());
+        assertEquals(4, page.getTotalElements());
+        assertEquals(2, page.getTotalPages());
+    }
+
+    @Test
+    void filter_ShouldNotQueryDatabase_WhenPageIsPastTheEnd() {
+        index.add("clientes", 1L);
+
+        ContactPageResponse page = groupService.filter(List.of("clientes"), List.of(), List.of(), 5, 20);
+
+        assertTrue(page.getContent().isEmpty());
+        assertEquals(1, page.getTotalElements());
+        verifyNoInteractions(contactRepository);
+    }
+
+    @Test
+    void count_ShouldBeAnsweredFromIndex() {
+        index.add("clientes", 1L);
+        index.add("clientes", 2L);
+        index.add("familia", 2L);
+
+        assertEquals(1, groupService.count(List.of("clientes"), List.of(), List.of("familia")));
+        verifyNoInteractions(groupRepository, contactRepository);
+    }
+
+    @Test
+    void onContactChanged_ShouldRemoveDeletedContactFromAllGroups() {
+        index.add("clientes", 1L);
+
+        groupService.onContactChanged(new ContactChangedEvent(ChangeType.DELETED, 1L, null, null));
+
+        verify(groupRepository, times(1)).removeContactFromAllGroups(1L);
+        verify(groupRepository, times(1)).removeContactFromAllGroupsAfterCommit(1L);
+        assertFalse(index.contains("clientes", 1L));
+    }
+
+    @Test
+    void onContactChanged_ShouldUpdateIndexOnlyAfterCommit() {
+        index.add("clientes", 1L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            groupService.onContactChanged(new ContactChangedEvent(ChangeType.DELETED, 1L, null, null));
+
+            // Exclusão ainda não confirmada: se for desfeita, o índice continua igual ao banco
+            assertTrue(index.contains("clientes", 1L));
+            verify(groupRepository, never()).removeContactFromAllGroupsAfterCommit(anyLong());
+
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCommit();
+            }
+            assertFalse(index.contains("clientes", 1L));
+            verify(groupRepository, times(1)).removeContactFromAllGroupsAfterCommit(1L);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void onContactChanged_ShouldIgnoreOtherChanges() {
+        groupService.onContactChanged(new ContactChangedEvent(ChangeType.UPDATED, 1L, null, null));
+
+        verifyNoInteractions(groupRepository);
+    }
+}
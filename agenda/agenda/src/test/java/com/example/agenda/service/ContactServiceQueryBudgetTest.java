@@ -0,0 +1,121 @@
+package com.example.agenda.service;
+
+import com.example.agenda.config.DataSourceProxyConfig;
+import com.example.agenda.dto.ContactRequest;
+import com.example.agenda.model.Contact;
+import com.example.agenda.repository.ContactRepository;
+import com.example.agenda.support.QueryBudget;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Quantos comandos SQL cada operação do serviço executa, contra um H2 real.
+ * Sem transação no teste: cada chamada abre a sua, como em produção.
+ */
+@DataJpaTest(properties = "agenda.datasource.count-queries=true")
+// Os testes de fatia não resolvem placeholders de @Value sem esta auto-configuração
+@ImportAutoConfiguration(PropertyPlaceholderAutoConfiguration.class)
+@Import({ContactService.class, DataSourceProxyConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ContactServiceQueryBudgetTest {
+
+    @Autowired
+    private ContactService contactService;
+
+    @Autowired
+    private ContactRepository contactRepository;
+
+    private Contact existing;
+
+    @BeforeEach
+    void setUp() {
+        contactRepository.deleteAll();
+
+        Contact contact = new Contact();
+        contact.setName("João Silva");
+        contact.setEmail("joao.silva@example.com");
+        contact.setPhone("123456789");
+        existing = contactRepository.save(contact);
+    }
+
+    private ContactRequest request(String name, String phone) {
+        ContactRequest request = new ContactRequest();
+        request.setName(name);
+        request.setPhone(phone);
+        return request;
+    }
+
+    @Test
+    @QueryBudget(1)
+    void create_ShouldRunOneInsert() {
+        assertNotNull(contactService.create(request("Maria Teste", "11999991234")).getId());
+    }
+
+    @Test
+    @QueryBudget(3)
+    void createAll_ShouldRunOneInsertPerContact() {
+        assertEquals(3, contactService.createAll(List.of(
+                request("Ana", "111"), request("Bia", "222"), request("Caio", "333"))));
+    }
+
+    @Test
+    @QueryBudget(1)
+    void findAll_ShouldRunOneSelect() {
+        assertEquals(1, contactService.findAll().size());
+    }
+
+    @Test
+    @QueryBudget(2)
+    void findPage_ShouldRunOneSelectPlusCount() {
+        assertEquals(1, contactService.findPage(0, 1).getContent().size());
+    }
+
+    @Test
+    @QueryBudget(1)
+    void streamAll_ShouldRunOneSelect() {
+        contactService.streamAll(contact -> assertEquals(existing.getId(), contact.getId()));
+    }
+
+    @Test
+    @QueryBudget(1)
+    void findById_ShouldRunOneSelect() {
+        assertEquals("João Silva", contactService.findById(existing.getId()).getName());
+    }
+
+    @Test
+    @QueryBudget(1)
+    void findByName_ShouldRunOneSelect() {
+        assertEquals(1, contactService.findByName("joão").size());
+    }
+
+    @Test
+    @QueryBudget(1)
+    void findByPhone_ShouldRunOneSelect() {
+        assertEquals(existing.getId(), contactService.findByPhone("123456789").getId());
+    }
+
+    @Test
+    @QueryBudget(2)
+    void update_ShouldRunOneSelectAndOneUpdate() {
+        assertEquals("João Atualizado",
+                contactService.update(existing.getId(), request("João Atualizado", "123456789")).getName());
+    }
+
+    @Test
+    @QueryBudget(2)
+    void delete_ShouldRunOneSelectAndOneDelete() {
+        // O contato é carregado uma vez (para o evento) e removido na mesma transação
+        assertDoesNotThrow(() -> contactService.delete(existing.getId()));
+    }
+}
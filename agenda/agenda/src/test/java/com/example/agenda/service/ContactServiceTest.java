@@ -1,7 +1,11 @@
 package com.example.agenda.service;
 
+import com.example.agenda.dto.ContactPageResponse;
 import com.example.agenda.dto.ContactRequest;
 import com.example.agenda.dto.ContactResponse;
+import com.example.agenda.event.ContactChangedEvent;
+import com.example.agenda.event.ContactChangedEvent.ChangeType;
+import com.example.agenda.exception.ContactNameNotFoundException;
 import com.example.agenda.model.Contact;
 import com.example.agenda.repository.ContactRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,14 +14,30 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,6 +51,10 @@ public class ContactServiceTest {
     @Mock
     private ContactRepository contactRepository;
 
+    // Mock do publicador de eventos de alteração
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     private Contact contact;
     private ContactRequest request;
 
@@ -79,6 +103,19 @@ public class ContactServiceTest {
         assertEquals(request.getName(), response.getName());
 
         verify(contactRepository, times(1)).save(any(Contact.class));
+        verify(eventPublisher, times(1)).publishEvent(argThat((ContactChangedEvent event) ->
+                event.type() == ChangeType.CREATED && event.before() == null && event.after().getId() == 1L));
+    }
+
+    @Test
+    void createAll_ShouldSaveEveryContactInOneCall_Success() {
+        when(contactRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        int created = contactService.createAll(List.of(request, request));
+
+        assertEquals(2, created);
+        verify(contactRepository, times(1)).saveAll(anyList());
+        verify(contactRepository, never()).save(any(Contact.class));
     }
 
     // --------------------------------------------------------------------------------
@@ -97,6 +134,32 @@ public class ContactServiceTest {
         verify(contactRepository, times(1)).findAll();
     }
 
+    @Test
+    void findPage_ShouldReturnRequestedPage_Success() {
+        when(contactRepository.findPage(PageRequest.of(2, 10)))
+                .thenReturn(new PageImpl<>(List.of(ContactResponse.fromEntity(contact)), PageRequest.of(2, 10), 21));
+
+        ContactPageResponse page = contactService.findPage(2, 10);
+
+        assertEquals(1, page.getContent().size());
+        assertEquals(21, page.getTotalElements());
+        assertEquals(3, page.getTotalPages());
+        verify(contactRepository, never()).findAll();
+    }
+
+    @Test
+    void streamAll_ShouldPassEveryContactToConsumer_Success() {
+        when(contactRepository.streamAll()).thenReturn(Stream.of(ContactResponse.fromEntity(contact)));
+
+        List<ContactResponse> received = new ArrayList<>();
+        contactService.streamAll(received::add);
+
+        assertEquals(1, received.size());
+        assertEquals(1L, received.get(0).getId());
+        verify(contactRepository, times(1)).streamAll();
+        verify(contactRepository, never()).findAll();
+    }
+
     // Teste de Busca por ID (Sucesso)
     @Test
     void findById_ShouldReturnContactResponse_Success() {
@@ -138,11 +201,12 @@ public class ContactServiceTest {
     void findByName_ShouldThrowException_NotFound() {
         when(contactRepository.findByNameContainingIgnoreCase("NãoExiste")).thenReturn(List.of());
 
-        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
+        ContactNameNotFoundException exception = assertThrows(ContactNameNotFoundException.class, () -> {
             contactService.findByName("NãoExiste");
         });
 
-        assertTrue(exception.getMessage().contains("não encontrado"));
+        assertTrue(exception.getMessage().contains("Nenhum contato encontrado"));
+        assertEquals("NãoExiste", exception.getName());
     }
 
     // Teste de Busca por Telefone (Sucesso)
@@ -165,7 +229,30 @@ public class ContactServiceTest {
             contactService.findByPhone("000000000");
         });
 
-        assertEquals("Nenhum contato encontardo emo este telefone", exception.getMessage());
+        assertEquals("Nenhum contato encontrado com este telefone", exception.getMessage());
+    }
+
+    // Falhas esperadas reaproveitam a mesma exceção, sem stack trace
+    @Test
+    void findByPhone_ShouldReusePreallocatedExceptionWithoutStackTrace() {
+        when(contactRepository.findByPhone(any())).thenReturn(Optional.empty());
+
+        RuntimeException first = assertThrows(RuntimeException.class, () -> contactService.findByPhone("000000000"));
+        RuntimeException second = assertThrows(RuntimeException.class, () -> contactService.findByPhone("111111111"));
+
+        assertSame(first, second);
+        assertEquals(0, first.getStackTrace().length);
+    }
+
+    // Busca por nome sem resultado com agenda.search.empty-as-not-found=false
+    @Test
+    void findByName_ShouldReturnEmptyList_WhenEmptySearchIsNotAnError() {
+        ReflectionTestUtils.setField(contactService, "emptySearchAsNotFound", false);
+        when(contactRepository.findByNameContainingIgnoreCase("NãoExiste")).thenReturn(List.of());
+
+        List<ContactResponse> responses = contactService.findByName("NãoExiste");
+
+        assertTrue(responses.isEmpty());
     }
 
     // --------------------------------------------------------------------------------
@@ -194,6 +281,10 @@ public class ContactServiceTest {
 
         verify(contactRepository, times(1)).findById(1L);
         verify(contactRepository, times(1)).save(contact);
+        verify(eventPublisher, times(1)).publishEvent(argThat((ContactChangedEvent event) ->
+                event.type() == ChangeType.UPDATED
+                        && event.before().getName().equals("João Silva")
+                        && event.after().getName().equals("João Atualizado")));
     }
 
     @Test
@@ -210,29 +301,87 @@ public class ContactServiceTest {
     // --------------------------------------------------------------------------------
 
     @Test
-    void delete_ShouldCallDeleteById_Success() {
-        // Simula que o contato existe
-        when(contactRepository.existsById(1L)).thenReturn(true);
-        doNothing().when(contactRepository).deleteById(1L);
+    void delete_ShouldLoadAndDeleteContact_Success() {
+        // Simula que o contato existe (carregado para o evento levar os valores excluídos)
+        when(contactRepository.findById(1L)).thenReturn(Optional.of(contact));
+        doNothing().when(contactRepository).delete(contact);
 
         // Asserção: não deve lançar exceção
         assertDoesNotThrow(() -> contactService.delete(1L));
 
-        verify(contactRepository, times(1)).existsById(1L);
-        verify(contactRepository, times(1)).deleteById(1L);
+        verify(contactRepository, times(1)).findById(1L);
+        verify(contactRepository, times(1)).delete(contact);
+        verify(eventPublisher, times(1)).publishEvent(argThat((ContactChangedEvent event) ->
+                event.type() == ChangeType.DELETED && event.before().getId() == 1L && event.after() == null));
     }
 
     @Test
     void delete_ShouldThrowException_NotFound() {
         // Simula que o contato não existe
-        when(contactRepository.existsById(99L)).thenReturn(false);
+        when(contactRepository.findById(99L)).thenReturn(Optional.empty());
 
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
             contactService.delete(99L);
         });
 
         assertEquals("Contato não existe", exception.getMessage());
-        verify(contactRepository, times(1)).existsById(99L);
-        verify(contactRepository, never()).deleteById(anyLong());
+        verify(contactRepository, times(1)).findById(99L);
+        verify(contactRepository, never()).delete(any(Contact.class));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    // --------------------------------------------------------------------------------
+    // --- Buscas compartilhadas x commit da escrita ---
+
+    @Test
+    void update_ShouldForgetInFlightLookupsOnlyAfterCommit() throws Exception {
+        Contact stale = new Contact();
+        stale.setId(1L);
+        stale.setName("Antes do commit");
+        Contact fresh = new Contact();
+        fresh.setId(1L);
+        fresh.setName("Depois do commit");
+
+        AtomicInteger reads = new AtomicInteger();
+        CountDownLatch leaderEntered = new CountDownLatch(1);
+        CountDownLatch releaseLeader = new CountDownLatch(1);
+        when(contactRepository.findById(1L)).thenAnswer(invocation -> switch (reads.incrementAndGet()) {
+            // Leitura do próprio update
+            case 1 -> Optional.of(contact);
+            // Busca que começa com a transação ainda aberta e lê o valor antigo
+            case 2 -> {
+                leaderEntered.countDown();
+                releaseLeader.await(5, TimeUnit.SECONDS);
+                yield Optional.of(stale);
+            }
+            default -> Optional.of(fresh);
+        });
+        when(contactRepository.save(any(Contact.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            contactService.update(1L, request);
+
+            Future<ContactResponse> leader = executor.submit(() -> contactService.findById(1L));
+            assertTrue(leaderEntered.await(5, TimeUnit.SECONDS));
+
+            // Commit
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCommit();
+            }
+
+            // Quem chega depois do commit não pode reaproveitar a busca antiga
+            ContactResponse afterCommit = executor.submit(() -> contactService.findById(1L)).get(5, TimeUnit.SECONDS);
+            assertEquals("Depois do commit", afterCommit.getName());
+            assertEquals(0, contactService.getLookupFlights().get(0).getCoalescedCount());
+
+            releaseLeader.countDown();
+            assertEquals("Antes do commit", leader.get(5, TimeUnit.SECONDS).getName());
+        } finally {
+            releaseLeader.countDown();
+            TransactionSynchronizationManager.clearSynchronization();
+            executor.shutdownNow();
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,239 @@
+package com.example.agenda.service;
+
+import com.example.agenda.dto.ContactResponse;
+import com.example.agenda.dto.ContactStatsResponse;
+import com.example.agenda.event.ContactChangedEvent;
+import com.example.agenda.event.ContactChangedEvent.ChangeType;
+import com.example.agenda.repository.ContactRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ContactStatsServiceTest {
+
+    @Mock
+    private ContactRepository repository;
+
+    private ContactStatsService statsService;
+
+    @BeforeEach
+    void setUp() {
+        statsService = new ContactStatsService(repository, 30, 2);
+    }
+
+    private ContactResponse contact(long id, String email, String phone, LocalDateTime createdAt) {
+        return new ContactResponse(id, "Contato " + id, email, phone, null, createdAt);
+    }
+
+    private void created(ContactResponse contact) {
+        statsService.onContactChanged(new ContactChangedEvent(ChangeType.CREATED, contact.getId(), null, contact));
+    }
+
+    @Test
+    void onContactChanged_ShouldMaintainCountersWithoutQueryingTheDatabase() {
+        LocalDateTime now = LocalDateTime.now();
+        created(contact(1, "ana@Empresa.com", "1199", now));
+        created(contact(2, "bia@empresa.com", "", now));
+        created(contact(3, null, "1177", now.minusDays(1)));
+        created(contact(4, "caio@outra.com", "1166", now.minusDays(40)));
+
+        ContactStatsResponse stats = statsService.getStats();
+
+        assertEquals(4, stats.getTotalContacts());
+        assertEquals(1, stats.getMissingEmail());
+        assertEquals(1, stats.getMissingPhone());
+        assertEquals(2, stats.getCreatedPerDay().size());
+        assertEquals(now.toLocalDate().minusDays(1), stats.getCreatedPerDay().get(0).getDate());
+        assertEquals(2, stats.getCreatedPerDay().get(1).getCount());
+        assertEquals("empresa.com", stats.getTopEmailDomains().get(0).getDomain());
+        assertEquals(2, stats.getTopEmailDomains().get(0).getCount());
+        assertEquals("outra.com", stats.getTopEmailDomains().get(1).getDomain());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void onContactChanged_ShouldMoveCountersOnUpdateAndDropThemOnDelete() {
+        LocalDateTime now = LocalDateTime.now();
+        ContactResponse before = contact(1, "ana@empresa.com", null, now);
+        ContactResponse after = contact(1, "ana@nova.com", "1199", now);
+        created(before);
+
+        statsService.onContactChanged(new ContactChangedEvent(ChangeType.UPDATED, 1L, before, after));
+        ContactStatsResponse updated = statsService.getStats();
+
+        assertEquals(1, updated.getTotalContacts());
+        assertEquals(0, updated.getMissingPhone());
+        assertEquals(1, updated.getTopEmailDomains().size());
+        assertEquals("nova.com", updated.getTopEmailDomains().get(0).getDomain());
+
+        statsService.onContactChanged(new ContactChangedEvent(ChangeType.DELETED, 1L, after, null));
+        ContactStatsResponse deleted = statsService.getStats();
+
+        assertEquals(0, deleted.getTotalContacts());
+        assertTrue(deleted.getTopEmailDomains().isEmpty());
+        assertTrue(deleted.getCreatedPerDay().isEmpty());
+    }
+
+    @Test
+    void getStats_ShouldReuseResponseWhileNothingChanges() {
+        created(contact(1, "ana@empresa.com", "1199", LocalDateTime.now()));
+
+        ContactStatsResponse first = statsService.getStats();
+
+        assertSame(first, statsService.getStats());
+
+        created(contact(2, "bia@empresa.com", "1188", LocalDateTime.now()));
+
+        assertNotSame(first, statsService.getStats());
+        assertEquals(2, statsService.getStats().getTotalContacts());
+    }
+
+    @Test
+    void reconcile_ShouldReplaceCountersWithDatabaseAggregates() {
+        LocalDate today = LocalDate.now();
+        created(contact(1, "ana@empresa.com", "1199", LocalDateTime.now()));
+
+        when(repository.count()).thenReturn(10L);
+        when(repository.countMissingEmail()).thenReturn(3L);
+        when(repository.countMissingPhone()).thenReturn(2L);
+        when(repository.countCreatedPerDay(any())).thenReturn(List.<Object[]>of(new Object[]{today, 10L}));
+        when(repository.countPerEmailDomain()).thenReturn(List.<Object[]>of(new Object[]{"empresa.com", 7L}));
+
+        statsService.reconcile();
+        ContactStatsResponse stats = statsService.getStats();
+
+        assertEquals(10, stats.getTotalContacts());
+        assertEquals(3, stats.getMissingEmail());
+        assertEquals(2, stats.getMissingPhone());
+        assertEquals(10, stats.getCreatedPerDay().get(0).getCount());
+        assertEquals(7, stats.getTopEmailDomains().get(0).getCount());
+        assertNotNull(stats.getLastReconciledAt());
+    }
+
+    @Test
+    void onContactChanged_ShouldApplyOnlyWhenTheTransactionCommits() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            created(contact(1, "ana@empresa.com", "1199", LocalDateTime.now()));
+            created(contact(2, "bia@empresa.com", "1188", LocalDateTime.now()));
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+
+            assertEquals(0, statsService.getStats().getTotalContacts());
+
+            synchronizations.get(0).afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            synchronizations.get(1).afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+            assertEquals(1, statsService.getStats().getTotalContacts());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void reconcile_ShouldDiscardLoadThatRacedWithAWrite() {
+        LocalDate today = LocalDate.now();
+        when(repository.count()).thenReturn(1L);
+        when(repository.countCreatedPerDay(any())).thenReturn(List.<Object[]>of(new Object[]{today, 1L}));
+        when(repository.countPerEmailDomain()).thenReturn(List.<Object[]>of(new Object[]{"empresa.com", 1L}));
+        statsService.reconcile();
+
+        // Um contato é confirmado enquanto o banco é lido: a leitura pode ou não tê-lo visto
+        when(repository.count()).thenAnswer(invocation -> {
+            created(contact(2, "bia@empresa.com", "1188", LocalDateTime.now()));
+            return 2L;
+        }).thenReturn(2L);
+        when(repository.countCreatedPerDay(any())).thenReturn(List.<Object[]>of(new Object[]{today, 2L}));
+        when(repository.countPerEmailDomain()).thenReturn(List.<Object[]>of(new Object[]{"empresa.com", 2L}));
+        statsService.reconcile();
+
+        // A primeira tentativa foi descartada; a segunda leu o banco já com o contato
+        verify(repository, times(3)).count();
+        ContactStatsResponse stats = statsService.getStats();
+        assertEquals(2, stats.getTotalContacts());
+        assertEquals(2, stats.getCreatedPerDay().get(0).getCount());
+        assertEquals(2, stats.getTopEmailDomains().get(0).getCount());
+    }
+
+    @Test
+    void getStats_ShouldMoveTheDayWindowAtMidnight() {
+        MutableClock clock = new MutableClock(Instant.parse("2024-03-10T23:59:00Z"));
+        statsService = new ContactStatsService(repository, 2, 2, clock);
+        statsService.onContactChanged(new ContactChangedEvent(ChangeType.CREATED, 1L, null,
+                contact(1, "ana@empresa.com", "1199", LocalDateTime.of(2024, 3, 9, 12, 0))));
+
+        ContactStatsResponse beforeMidnight = statsService.getStats();
+        assertEquals(LocalDate.of(2024, 3, 9), beforeMidnight.getCreatedPerDay().get(0).getDate());
+
+        // Nenhuma escrita, mas o dia 9 saiu da janela de 2 dias
+        clock.instant = Instant.parse("2024-03-11T00:01:00Z");
+        ContactStatsResponse afterMidnight = statsService.getStats();
+
+        assertNotSame(beforeMidnight, afterMidnight);
+        assertTrue(afterMidnight.getCreatedPerDay().isEmpty());
+        assertEquals(1, afterMidnight.getTotalContacts());
+    }
+
+    @Test
+    void getStats_ShouldKeepTopDomainsOrderedAsCountsChange() {
+        LocalDateTime now = LocalDateTime.now();
+        created(contact(1, "a@um.com", "1", now));
+        created(contact(2, "b@dois.com", "2", now));
+        created(contact(3, "c@dois.com", "3", now));
+        created(contact(4, "d@tres.com", "4", now));
+
+        assertEquals(List.of("dois.com", "tres.com"), domains(statsService.getStats()));
+
+        created(contact(5, "e@um.com", "5", now));
+        created(contact(6, "f@um.com", "6", now));
+        statsService.onContactChanged(new ContactChangedEvent(ChangeType.DELETED, 3L,
+                contact(3, "c@dois.com", "3", now), null));
+
+        assertEquals(List.of("um.com", "dois.com"), domains(statsService.getStats()));
+    }
+
+    private List<String> domains(ContactStatsResponse stats) {
+        return stats.getTopEmailDomains().stream().map(ContactStatsResponse.DomainCount::getDomain).toList();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package com.example.agenda.service;
+
+import com.example.agenda.dto.ContactImportResult;
+import com.example.agenda.dto.ContactRequest;
+import com.example.agenda.dto.ContactResponse;
+import com.example.agenda.format.ContactFormat;
+import com.example.agenda.repository.ContactRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ContactTransferServiceTest {
+
+    @InjectMocks
+    private ContactTransferService transferService;
+
+    @Mock
+    private ContactService contactService;
+
+    @Mock
+    private ContactRepository contactRepository;
+
+    private ContactResponse contact;
+
+    @BeforeEach
+    void setUp() {
+        contact = new ContactResponse(1L, "Silva, João", "joao@example.com", "123456789",
+                "Disse \"olá\"\nna segunda linha", LocalDateTime.of(2024, 1, 2, 3, 4, 5));
+    }
+
+    private void streamContacts(ContactResponse... contacts) {
+        doAnswer(invocation -> {
+            Consumer<ContactResponse> consumer = invocation.getArgument(0);
+            for (ContactResponse c : contacts) {
+                consumer.accept(c);
+            }
+            return null;
+        }).when(contactService).streamAll(any());
+    }
+
+    private InputStream file(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<ContactRequest> captureCreated() {
+        ArgumentCaptor<List<ContactRequest>> captor = ArgumentCaptor.forClass(List.class);
+        verify(contactService).createAll(captor.capture());
+        return captor.getValue();
+    }
+
+    // --------------------------------------------------------------------------------
+
+    @Test
+    void export_Csv_ShouldQuoteSpecialCharacters() throws Exception {
+        streamContacts(contact);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        transferService.export(ContactFormat.CSV, out);
+
+        String csv = out.toString(StandardCharsets.UTF_8);
+        assertTrue(csv.startsWith("id,name,email,phone,notes,createdAt\r\n"));
+        assertTrue(csv.contains("1,\"Silva, João\",joao@example.com,123456789,\"Disse \"\"olá\"\"\nna segunda linha\",2024-01-02T03:04:05\r\n"));
+    }
+
+    @Test
+    void export_VCard_ShouldEscapeValues() throws Exception {
+        streamContacts(contact);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        transferService.export(ContactFormat.VCARD, out);
+
+        String vcf = out.toString(StandardCharsets.UTF_8);
+        assertTrue(vcf.startsWith("BEGIN:VCARD\r\nVERSION:3.0\r\n"));
+        assertTrue(vcf.contains("FN:Silva\\, João\r\n"));
+        assertTrue(vcf.contains("NOTE:Disse \"olá\"\\nna segunda linha\r\n"));
+        assertTrue(vcf.endsWith("END:VCARD\r\n"));
+    }
+
+    @Test
+    void export_VCard_ShouldFoldLinesAt75OctetsAndRoundTrip() throws Exception {
+        String notes = "Observação longa com acentuação: ".repeat(8);
+        streamContacts(new ContactResponse(2L, "Ana", null, "111", notes, null));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        transferService.export(ContactFormat.VCARD, out);
+
+        String vcf = out.toString(StandardCharsets.UTF_8);
+        for (String line : vcf.split("\r\n")) {
+            assertTrue(line.getBytes(StandardCharsets.UTF_8).length <= 75, line);
+        }
+        when(contactRepository.findExistingPhones(anyList())).thenReturn(List.of());
+        when(contactService.createAll(anyList())).thenReturn(1);
+
+        transferService.importContacts(ContactFormat.VCARD, new ByteArrayInputStream(out.toByteArray()));
+
+        assertEquals(notes, captureCreated().get(0).getNotes());
+    }
+
+    @Test
+    void export_ThenImport_Csv_ShouldRoundTrip() throws Exception {
+        streamContacts(contact);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        transferService.export(ContactFormat.CSV, out);
+        when(contactRepository.findExistingPhones(anyList())).thenReturn(List.of());
+        when(contactService.createAll(anyList())).thenReturn(1);
+
+        ContactImportResult result = transferService.importContacts(ContactFormat.CSV,
+                new ByteArrayInputStream(out.toByteArray()));
+
+        assertEquals(1, result.getImported());
+        ContactRequest imported = captureCreated().get(0);
+        assertEquals(contact.getName(), imported.getName());
+        assertEquals(contact.getNotes(), imported.getNotes());
+        assertEquals(contact.getPhone(), imported.getPhone());
+    }
+
+    @Test
+    void importContacts_Csv_ShouldReportInvalidLinesAndKeepGoing() throws Exception {
+        String csv = "name,phone,email\n"
+                + "Ana,111,ana@example.com\n"
+                + "A,222,\n"
+                + ",333,\n"
+                + "\n"
+                + "Bruno,,\n"
+                + "Carla,444,\n"
+                + "Duda,444,\n"
+                + "Eva,555,\n";
+        when(contactRepository.findExistingPhones(anyList())).thenReturn(List.of("555"));
+        when(contactService.createAll(anyList())).thenReturn(2);
+
+        ContactImportResult result = transferService.importContacts(ContactFormat.CSV, file(csv));
+
+        assertEquals(2, result.getImported());
+        assertEquals(5, result.getFailed());
+        assertEquals(List.of(3L, 4L, 6L, 8L, 9L),
+                result.getErrors().stream().map(ContactImportResult.LineError::getLine).toList());
+        assertEquals(List.of("Ana", "Carla"), captureCreated().stream().map(ContactRequest::getName).toList());
+    }
+
+    @Test
+    void importContacts_Csv_ShouldRejectHeaderWithoutRequiredColumns() throws Exception {
+        ContactImportResult result = transferService.importContacts(ContactFormat.CSV, file("nome,fone\nAna,111\n"));
+
+        assertEquals(0, result.getImported());
+        assertEquals(1, result.getFailed());
+        verify(contactService, never()).createAll(anyList());
+    }
+
+    @Test
+    void importContacts_Csv_ShouldWriteInBatches() throws Exception {
+        StringBuilder csv = new StringBuilder("name,phone\n");
+        int total = ContactTransferService.BATCH_SIZE * 2 + 1;
+        for (int i = 0; i < total; i++) {
+            csv.append("Contato ").append(i).append(',').append(i).append('\n');
+        }
+        when(contactRepository.findExistingPhones(anyList())).thenReturn(List.of());
+        when(contactService.createAll(anyList())).thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+
+        ContactImportResult result = transferService.importContacts(ContactFormat.CSV, file(csv.toString()));
+
+        assertEquals(total, result.getImported());
+        verify(contactService, times(3)).createAll(anyList());
+        verify(contactRepository, times(3)).findExistingPhones(anyList());
+    }
+
+    @Test
+    void importContacts_Csv_ShouldRetryRowByRow_WhenBatchHitsConcurrentInsert() throws Exception {
+        String csv = "name,phone\nAna,111\nBia,222\nCaio,333\n";
+        when(contactRepository.findExistingPhones(anyList())).thenReturn(List.of());
+        when(contactService.createAll(anyList())).thenThrow(new DataIntegrityViolationException("phone"));
+        when(contactService.create(any(ContactRequest.class))).thenAnswer(invocation -> {
+            ContactRequest request = invocation.getArgument(0);
+            if (request.getPhone().equals("222")) {
+                throw new DataIntegrityViolationException("phone");
+            }
+            return new ContactResponse();
+        });
+
+        ContactImportResult result = transferService.importContacts(ContactFormat.CSV, file(csv));
+
+        assertEquals(2, result.getImported());
+        assertEquals(1, result.getFailed());
+        assertEquals(3L, result.getErrors().get(0).getLine());
+        assertEquals("Telefone já cadastrado", result.getErrors().get(0).getMessage());
+        verify(contactService, times(3)).create(any(ContactRequest.class));
+    }
+
+    @Test
+    void importContacts_Csv_ShouldReportOversizedRecordAndResyncAtNextLine() throws Exception {
+        // Aspas não fechadas: sem limite, o campo engoliria todo o resto do arquivo
+        StringBuilder csv = new StringBuilder("name,phone\nAna,111\nBia,\"222\n");
+        for (int i = 0; csv.length() < 5_000; i++) {
+            csv.append("Contato ").append(i).append(',').append(i).append('\n');
+        }
+        csv.append("Zeca,999\n");
+        when(contactRepository.findExistingPhones(anyList())).thenReturn(List.of());
+        when(contactService.createAll(anyList())).thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+
+        ContactImportResult result = transferService.importContacts(ContactFormat.CSV, file(csv.toString()));
+
+        assertEquals(1, result.getFailed());
+        assertEquals(3L, result.getErrors().get(0).getLine());
+        List<String> names = captureCreated().stream().map(ContactRequest::getName).toList();
+        assertEquals("Ana", names.get(0));
+        assertEquals("Zeca", names.get(names.size() - 1));
+    }
+
+    @Test
+    void importContacts_VCard_ShouldReportOversizedPropertyAndResyncAtNextCard() throws Exception {
+        String vcf = "BEGIN:VCARD\r\n"
+                + "FN:Grande\r\n"
+                + "TEL:111\r\n"
+                + "NOTE:" + "x".repeat(70) + "\r\n"
+                + (" " + "x".repeat(74) + "\r\n").repeat(300)
+                + "END:VCARD\r\n"
+                + "BEGIN:VCARD\r\n"
+                + "FN:Pequeno\r\n"
+                + "TEL:222\r\n"
+                + "END:VCARD\r\n";
+        when(contactRepository.findExistingPhones(anyList())).thenReturn(List.of());
+        when(contactService.createAll(anyList())).thenReturn(1);
+
+        ContactImportResult result = transferService.importContacts(ContactFormat.VCARD, file(vcf));
+
+        assertEquals(1, result.getImported());
+        assertEquals(List.of(4L), result.getErrors().stream().map(ContactImportResult.LineError::getLine).toList());
+        assertEquals("Pequeno", captureCreated().get(0).getName());
+    }
+
+    @Test
+    void importContacts_VCard_ShouldReadFoldedAndGroupedProperties() throws Exception {
+        String vcf = "BEGIN:VCARD\r\n"
+                + "VERSION:3.0\r\n"
+                + "FN:Maria\r\n"
+                + " Teste\r\n"
+                + "item1.TEL;TYPE=cell:11999991234\r\n"
+                + "EMAIL;TYPE=work:maria@exemplo.com\r\n"
+                + "NOTE:linha 1\\nlinha 2\\, fim\r\n"
+                + "END:VCARD\r\n"
+                + "BEGIN:VCARD\r\n"
+                + "FN:Sem Telefone\r\n"
+                + "END:VCARD\r\n"
+                + "BEGIN:VCARD\r\n"
+                + "FN:Incompleto\r\n";
+        when(contactRepository.findExistingPhones(anyList())).thenReturn(List.of());
+        when(contactService.createAll(anyList())).thenReturn(1);
+
+        ContactImportResult result = transferService.importContacts(ContactFormat.VCARD, file(vcf));
+
+        assertEquals(1, result.getImported());
+        assertEquals(List.of(9L, 12L),
+                result.getErrors().stream().map(ContactImportResult.LineError::getLine).toList());
+        ContactRequest imported = captureCreated().get(0);
+        assertEquals("MariaTeste", imported.getName());
+        assertEquals("11999991234", imported.getPhone());
+        assertEquals("maria@exemplo.com", imported.getEmail());
+        assertEquals("linha 1\nlinha 2, fim", imported.getNotes());
+    }
+}
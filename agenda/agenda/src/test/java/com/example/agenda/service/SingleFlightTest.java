@@ -0,0 +1,171 @@
+package com.example.agenda.service;
+
+import com.example.agenda.deadline.DeadlineContext;
+import com.example.agenda.exception.DeadlineExceededException;
+import com.example.agenda.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightTest {
+
+    private final SingleFlight<String, String> flight = new SingleFlight<>("teste");
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    // Inicia uma chamada que fica presa no loader até o latch ser liberado
+    private Future<String> startBlockedCall(AtomicInteger loads, CountDownLatch release, RuntimeException failure)
+            throws InterruptedException {
+        CountDownLatch entered = new CountDownLatch(1);
+        Future<String> leader = executor.submit(() -> flight.execute("chave", () -> {
+            loads.incrementAndGet();
+            entered.countDown();
+            await(release);
+            if (failure != null) {
+                throw failure;
+            }
+            return "valor";
+        }));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        return leader;
+    }
+
+    private Future<String> startFollower(AtomicInteger loads) throws InterruptedException {
+        Future<String> follower = executor.submit(() -> flight.execute("chave", () -> {
+            loads.incrementAndGet();
+            return "outro valor";
+        }));
+        // Espera o segundo chamador se juntar à consulta em andamento
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (flight.getCoalescedCount() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        return follower;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    void execute_ShouldShareOneLoadBetweenConcurrentCallers() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = startBlockedCall(loads, release, null);
+        Future<String> follower = startFollower(loads);
+        release.countDown();
+
+        assertEquals("valor", leader.get(5, TimeUnit.SECONDS));
+        assertEquals("valor", follower.get(5, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+        assertEquals(1, flight.getCoalescedCount());
+    }
+
+    @Test
+    void execute_ShouldShareExceptionWithConcurrentCallers() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ResourceNotFoundException notFound = new ResourceNotFoundException("Contato não encontrado");
+
+        Future<String> leader = startBlockedCall(loads, release, notFound);
+        Future<String> follower = startFollower(loads);
+        release.countDown();
+
+        Exception leaderError = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+        Exception followerError = assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertSame(notFound, leaderError.getCause());
+        assertSame(notFound, followerError.getCause());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void execute_ShouldStopWaitingWhenFollowerDeadlineExpires() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        long rejectedBefore = DeadlineContext.getRejectedCount();
+        long coalescedTimeoutsBefore = DeadlineContext.getCoalescedTimeoutCount();
+
+        Future<String> leader = startBlockedCall(loads, release, null);
+        Future<String> follower = executor.submit(() -> {
+            DeadlineContext.start(50);
+            try {
+                return flight.execute("chave", () -> "outro valor");
+            } finally {
+                DeadlineContext.clear();
+            }
+        });
+
+        // A consulta da primeira chamada continua presa; quem espera desiste no próprio prazo
+        Exception followerError = assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertSame(DeadlineExceededException.INSTANCE, followerError.getCause());
+        assertEquals(coalescedTimeoutsBefore + 1, DeadlineContext.getCoalescedTimeoutCount());
+        assertEquals(rejectedBefore, DeadlineContext.getRejectedCount());
+
+        release.countDown();
+        assertEquals("valor", leader.get(5, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void execute_ShouldLetFollowerLoadWhenLeaderDeadlineExpires() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = startBlockedCall(loads, release, new QueryTimeoutException("consulta cancelada"));
+        Future<String> follower = startFollower(loads);
+        release.countDown();
+
+        // O prazo esgotado era o da primeira chamada; a segunda faz a própria consulta
+        Exception leaderError = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(QueryTimeoutException.class, leaderError.getCause());
+        assertEquals("outro valor", follower.get(5, TimeUnit.SECONDS));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void execute_ShouldNotKeepResultAfterCompletion() {
+        assertEquals("a", flight.execute("chave", () -> "a"));
+        assertEquals("b", flight.execute("chave", () -> "b"));
+        assertEquals(0, flight.getCoalescedCount());
+    }
+
+    @Test
+    void forget_ShouldLetNextCallerStartFreshLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = startBlockedCall(loads, release, null);
+        flight.forget("chave");
+
+        // Com a consulta antiga esquecida, a próxima chamada vai ao banco de novo
+        assertEquals("novo", flight.execute("chave", () -> "novo"));
+        release.countDown();
+
+        assertEquals("valor", leader.get(5, TimeUnit.SECONDS));
+        assertEquals(0, flight.getCoalescedCount());
+    }
+
+    @Test
+    void execute_ShouldBypassCoalescingForNullKey() {
+        assertEquals("x", flight.execute(null, () -> "x"));
+        assertEquals(0, flight.getCoalescedCount());
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.agenda.snapshot;
+
+import com.example.agenda.dto.ContactResponse;
+import com.example.agenda.journal.ContactJournal;
+import com.example.agenda.service.ContactService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ContactSnapshotServiceTest {
+
+    @Mock
+    private ContactService contactService;
+
+    @Mock
+    private ContactJournal journal;
+
+    @TempDir
+    Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private ContactSnapshotService snapshotService;
+
+    @BeforeEach
+    void setUp() {
+        snapshotService = new ContactSnapshotService(contactService, journal, objectMapper, directory, 20, 200);
+    }
+
+    @AfterEach
+    void tearDown() {
+        snapshotService.close();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenContacts(ContactResponse... contacts) {
+        doAnswer(invocation -> {
+            Consumer<ContactResponse> consumer = invocation.getArgument(0);
+            for (ContactResponse contact : contacts) {
+                consumer.accept(contact);
+            }
+            return null;
+        }).when(contactService).streamAll(any(Consumer.class));
+    }
+
+    private ContactResponse contact(long id, String name) {
+        return new ContactResponse(id, name, null, "11" + id, null, LocalDateTime.of(2024, 1, 2, 3, 4, 5));
+    }
+
+    private JsonNode read(ContactSnapshot snapshot) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(snapshot.file()))) {
+            return objectMapper.readTree(in);
+        }
+    }
+
+    private List<Path> files() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.toList();
+        }
+    }
+
+    @Test
+    void rebuild_ShouldWriteGzippedJsonVersionedByJournalSequence() throws IOException {
+        when(journal.lastSequence()).thenReturn(7L);
+        givenContacts(contact(1, "Ana"), contact(2, "Bia"));
+
+        ContactSnapshot snapshot = snapshotService.rebuild();
+
+        assertEquals(7L, snapshot.version());
+        assertEquals("\"7\"", snapshot.etag(false));
+        assertEquals("\"7-gz\"", snapshot.etag(true));
+        assertEquals(Files.size(snapshot.file()), snapshot.size());
+        JsonNode contacts = read(snapshot);
+        assertEquals(2, contacts.size());
+        assertEquals("Bia", contacts.get(1).get("name").asText());
+        assertEquals(snapshot, snapshotService.current().orElseThrow());
+    }
+
+    @Test
+    void rebuild_ShouldSkipWhenVersionDidNotChange() throws IOException {
+        when(journal.lastSequence()).thenReturn(3L);
+        givenContacts(contact(1, "Ana"));
+
+        ContactSnapshot first = snapshotService.rebuild();
+        ContactSnapshot second = snapshotService.rebuild();
+
+        assertSame(first, second);
+        verify(contactService, times(1)).streamAll(any());
+    }
+
+    @Test
+    void rebuild_ShouldKeepOnlyTheLatestFiles() throws IOException {
+        givenContacts(contact(1, "Ana"));
+        for (long version = 1; version <= 5; version++) {
+            when(journal.lastSequence()).thenReturn(version);
+            snapshotService.rebuild();
+        }
+
+        List<Path> files = files();
+
+        assertEquals(3, files.size());
+        assertFalse(files.contains(directory.resolve("contacts-00000000000000000001.json.gz")));
+        assertTrue(files.contains(directory.resolve("contacts-00000000000000000005.json.gz")));
+    }
+
+    @Test
+    void start_ShouldReuseSnapshotOnDiskWhenJournalDidNotMove() throws IOException {
+        when(journal.lastSequence()).thenReturn(4L);
+        givenContacts(contact(1, "Ana"));
+        snapshotService.rebuild();
+        snapshotService.close();
+
+        snapshotService = new ContactSnapshotService(contactService, journal, objectMapper, directory, 20, 200);
+        snapshotService.start();
+
+        assertEquals(4L, snapshotService.current().orElseThrow().version());
+        verify(contactService, times(1)).streamAll(any());
+    }
+
+    @Test
+    void requestRebuild_ShouldGenerateOnceAfterWritesSettle() throws Exception {
+        when(journal.lastSequence()).thenReturn(9L);
+        givenContacts(contact(1, "Ana"));
+
+        for (int i = 0; i < 5; i++) {
+            snapshotService.requestRebuild();
+        }
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (snapshotService.current().isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(9L, snapshotService.current().orElseThrow().version());
+        verify(contactService, times(1)).streamAll(any());
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.agenda.support;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Número máximo de comandos SQL que o corpo do teste pode executar.
+ * O que roda no @BeforeEach não entra na conta. Requer o DataSourceProxyConfig no contexto
+ * com {@code agenda.datasource.count-queries=true}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(QueryBudgetExtension.class)
+public @interface QueryBudget {
+
+    int value();
+}
@@ -0,0 +1,42 @@
+package com.example.agenda.support;
+
+import net.ttddyy.dsproxy.QueryCount;
+import net.ttddyy.dsproxy.QueryCountHolder;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.opentest4j.AssertionFailedError;
+
+public class QueryBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        QueryCountHolder.clear();
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        if (context.getExecutionException().isPresent()) {
+            // Não esconde a falha original do teste
+            return;
+        }
+
+        int budget = AnnotationSupport.findAnnotation(context.getRequiredTestMethod(), QueryBudget.class)
+                .map(QueryBudget::value)
+                .orElseThrow();
+        if (QueryCountHolder.getDataSourceNames().isEmpty()) {
+            // Contagem desligada: o orçamento passaria sem medir nada
+            throw new AssertionFailedError("Nenhum comando SQL contado; ligue agenda.datasource.count-queries");
+        }
+        QueryCount count = QueryCountHolder.getGrandTotal();
+        QueryCountHolder.clear();
+
+        if (count.getTotal() > budget) {
+            throw new AssertionFailedError(String.format(
+                    "Orçamento de %d comando(s) SQL excedido: %d executado(s) (select=%d, insert=%d, update=%d, delete=%d, other=%d)",
+                    budget, count.getTotal(), count.getSelect(), count.getInsert(), count.getUpdate(),
+                    count.getDelete(), count.getOther()));
+        }
+    }
+}